@@ -0,0 +1,294 @@
+package com.bigBrother.api.audit;
+
+import com.bigBrother.api.events.EntityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit trail of committed camera and user changes, kept in segment files on local disk.
+ * The committing request thread only builds a record and puts it on a bounded queue, which takes microseconds;
+ * a single writer thread drains the queue, appends the records to the memory-mapped active segment and flushes
+ * the whole batch to disk at once (group commit). Segments are rotated by size and the oldest are deleted once
+ * the journal outgrows its size budget. If the writer falls so far behind that the queue fills up, records are
+ * dropped and counted in {@code audit.journal.records} (tag {@code result=dropped}) rather than slowing writes down.
+ * <p>
+ * Each replica journals the changes committed through it, numbered by its own seq. The journal therefore carries a
+ * replica id, {@code audit.replica-id} or else one generated on first start and kept next to the segments,
+ * and a seq only means something together with it.
+ */
+@Service
+public class AuditJournal implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+    private static final int MAX_BATCH = 1024;
+    private static final String REPLICA_ID_FILE = "replica-id";
+
+    // Durable end of the journal: records up to this position of the segment starting at baseSeq can be read
+    private record Tail(long baseSeq, int position) {
+    }
+
+    private final BlockingQueue<AuditRecord> queue;
+    private final ConcurrentSkipListMap<Long, AuditSegment> segments = new ConcurrentSkipListMap<>();
+    private final Counter written;
+    private final Counter dropped;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.dir:data/audit}")
+    private Path directory;
+
+    @Value("${audit.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${audit.max-total-size:1GB}")
+    private DataSize maxTotalSize;
+
+    @Value("${audit.replica-id:}")
+    private String replicaId;
+
+    private volatile boolean running;
+    private volatile Tail tail = new Tail(1, 0);
+    private AuditSegment active;
+    private long nextSeq;
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private Thread writerThread;
+
+    public AuditJournal(MeterRegistry meterRegistry, @Value("${audit.queue-capacity:65536}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("audit.journal.records").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("audit.journal.records").tag("result", "dropped").register(meterRegistry);
+        meterRegistry.gauge("audit.journal.queued", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Id of the replica whose changes this journal holds; null while the journal is disabled.
+     */
+    public String getReplicaId() {
+        return running ? replicaId : null;
+    }
+
+    /**
+     * Records a change once it is committed. The actor is whoever the request was authenticated as,
+     * or {@code system} for changes made by the application itself.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(EntityChangedEvent event) {
+        if (!running) return;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String actor = authentication != null ? authentication.getName() : "system";
+        Map<String, String> changes = new LinkedHashMap<>(event.changes().size() * 2);
+        event.changes().forEach((field, value) -> changes.put(field, value != null ? value.toString() : null));
+        append(new AuditRecord(0, System.currentTimeMillis(), actor, event.type(), event.operation(), event.id(), changes));
+    }
+
+    /**
+     * Queues a record for the writer; its seq is assigned when it is written.
+     *
+     * @return false if the queue was full and the record was dropped.
+     */
+    public boolean append(AuditRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Reads the durable records after {@code afterSeq}, in seq order.
+     *
+     * @param handler Gets each record; returns false to stop.
+     */
+    public void read(long afterSeq, Predicate<AuditRecord> handler) throws IOException {
+        Tail end = tail;
+        List<AuditSegment> candidates = new ArrayList<>();
+        Long first = segments.floorKey(afterSeq + 1);
+        candidates.addAll(segments.subMap(first != null ? first : Long.MIN_VALUE, true, end.baseSeq(), true).values());
+        boolean[] more = {true};
+        for (AuditSegment segment : candidates) {
+            long limit = segment.baseSeq() == end.baseSeq() ? end.position() : Long.MAX_VALUE;
+            try {
+                segment.read(limit, payload -> {
+                    if (payload.getLong(payload.position()) <= afterSeq) return true;
+                    more[0] = handler.test(AuditRecord.decode(payload));
+                    return more[0];
+                });
+            } catch (NoSuchFileException e) {
+                // Deleted by retention while we were reading older records
+                continue;
+            }
+            if (!more[0]) return;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Audit journal disabled");
+            return;
+        }
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalStateException("audit.segment-size must be less than 2GB");
+        }
+        try {
+            Files.createDirectories(directory);
+            replicaId = replicaId(directory, replicaId);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(AuditSegment.SUFFIX))
+                        .forEach(file -> {
+                            long baseSeq = AuditSegment.baseSeqOf(file);
+                            segments.put(baseSeq, new AuditSegment(directory, baseSeq));
+                        });
+            }
+            active = segments.isEmpty() ? new AuditSegment(directory, 1) : segments.lastEntry().getValue();
+            segments.put(active.baseSeq(), active);
+            nextSeq = active.openForAppend(segmentSize.toBytes()) + 1;
+            tail = new Tail(active.baseSeq(), active.force());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the audit journal in " + directory.toAbsolutePath(), e);
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit journal of replica {} in {}, next seq {}", replicaId, directory.toAbsolutePath(), nextSeq);
+    }
+
+    /**
+     * Stops taking records, lets the writer flush what is queued, then closes the active segment.
+     */
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            active.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Could not close the audit journal: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Started before and stopped after the web server, so every request's change gets written
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not write {} audit records", batch.size(), e);
+                dropped.increment(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditRecord> batch) throws IOException {
+        int count = 0;
+        for (AuditRecord record : batch) {
+            ByteBuffer payload = encode(record, nextSeq);
+            if (!active.append(payload)) {
+                rotate();
+                if (!active.append(payload)) {
+                    log.warn("Audit record of {} {} does not fit in a segment, dropped", record.entityType(), record.entityId());
+                    dropped.increment();
+                    continue;
+                }
+            }
+            nextSeq++;
+            count++;
+        }
+        tail = new Tail(active.baseSeq(), active.force());
+        written.increment(count);
+    }
+
+    private ByteBuffer encode(AuditRecord record, long seq) {
+        while (true) {
+            try {
+                scratch.clear();
+                record.encode(scratch, seq);
+                return scratch.flip();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    // The configured id, else the one stored with the journal, else a new one that is stored from now on
+    private static String replicaId(Path directory, String configured) throws IOException {
+        Path file = directory.resolve(REPLICA_ID_FILE);
+        if (configured != null && !configured.isBlank()) {
+            Files.writeString(file, configured.trim());
+            return configured.trim();
+        }
+        if (Files.exists(file)) {
+            return Files.readString(file).trim();
+        }
+        String generated = UUID.randomUUID().toString().substring(0, 8);
+        Files.writeString(file, generated);
+        return generated;
+    }
+
+    private void rotate() throws IOException {
+        active.close();
+        AuditSegment next = new AuditSegment(directory, nextSeq);
+        next.openForAppend(segmentSize.toBytes());
+        segments.put(next.baseSeq(), next);
+        active = next;
+        tail = new Tail(next.baseSeq(), 0);
+
+        while (segments.size() > 1 && (long) segments.size() * segmentSize.toBytes() > maxTotalSize.toBytes()) {
+            AuditSegment oldest = segments.pollFirstEntry().getValue();
+            Files.deleteIfExists(oldest.path());
+            log.info("Deleted audit segment {}", oldest.path().getFileName());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bigBrother.api.audit;
+
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One audited change: who changed which camera or user, how and when.
+ * <p>
+ * Binary layout, big-endian, after the length and CRC written by {@link AuditSegment}:
+ * seq (8), timestamp in epoch millis (8), entity type (1), operation (1), entity id (8), actor (string),
+ * number of changes (2), then per change the field name (string) and the value (string, length -1 for null).
+ * Strings are a length followed by UTF-8 bytes; the length takes 2 bytes for names and actors, 4 for values.
+ *
+ * @param seq Position in the journal, assigned by the writer; 0 until written.
+ * @param changes Changed fields and their new values as text, secrets already redacted.
+ */
+public record AuditRecord(long seq, long timestamp, String actor, EntityType entityType, Operation operation,
+                          long entityId, Map<String, String> changes) {
+
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    /**
+     * @throws java.nio.BufferOverflowException if the buffer is too small; its position is then undefined.
+     */
+    void encode(ByteBuffer buffer, long seq) {
+        buffer.putLong(seq);
+        buffer.putLong(timestamp);
+        buffer.put((byte) entityType.ordinal());
+        buffer.put((byte) operation.ordinal());
+        buffer.putLong(entityId);
+        putShortString(buffer, actor);
+        buffer.putShort((short) changes.size());
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            putShortString(buffer, change.getKey());
+            if (change.getValue() == null) {
+                buffer.putInt(-1);
+            } else {
+                byte[] value = change.getValue().getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(value.length);
+                buffer.put(value);
+            }
+        }
+    }
+
+    static AuditRecord decode(ByteBuffer buffer) {
+        long seq = buffer.getLong();
+        long timestamp = buffer.getLong();
+        EntityType entityType = ENTITY_TYPES[buffer.get()];
+        Operation operation = OPERATIONS[buffer.get()];
+        long entityId = buffer.getLong();
+        String actor = getString(buffer, Short.toUnsignedInt(buffer.getShort()));
+        int count = Short.toUnsignedInt(buffer.getShort());
+        Map<String, String> changes = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String name = getString(buffer, Short.toUnsignedInt(buffer.getShort()));
+            int length = buffer.getInt();
+            changes.put(name, length < 0 ? null : getString(buffer, length));
+        }
+        return new AuditRecord(seq, timestamp, actor, entityType, operation, entityId, changes);
+    }
+
+    private static void putShortString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
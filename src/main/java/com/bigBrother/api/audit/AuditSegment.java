@@ -0,0 +1,145 @@
+package com.bigBrother.api.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * One file of the audit journal, named after the seq of its first record and mapped into memory while it is
+ * being written. Each record is framed as its length (4), the CRC32C of its payload (4) and the payload;
+ * a zero length marks the end of the data, so the unwritten rest of the file is never read.
+ */
+final class AuditSegment {
+
+    static final String SUFFIX = ".audit";
+    private static final int FRAME_HEADER = 8;
+
+    private final Path path;
+    private final long baseSeq;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int forcedPosition;
+
+    AuditSegment(Path directory, long baseSeq) {
+        this.path = directory.resolve(String.format("%020d", baseSeq) + SUFFIX);
+        this.baseSeq = baseSeq;
+    }
+
+    static long baseSeqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long baseSeq() {
+        return baseSeq;
+    }
+
+    /**
+     * Maps the segment for appending, creating it if needed, and moves to the end of its valid records.
+     * A torn record left by a crash, and anything after it, is zeroed so it can never be read back.
+     *
+     * @return The seq of the last valid record, or {@code baseSeq - 1} if there is none.
+     */
+    long openForAppend(long size) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        long[] lastSeq = {baseSeq - 1};
+        int end = scan(buffer.duplicate(), buffer.capacity(), payload -> {
+            lastSeq[0] = payload.getLong(payload.position());
+            return true;
+        });
+        if (end + FRAME_HEADER <= buffer.capacity() && buffer.getLong(end) != 0) {
+            for (int i = end; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        buffer.position(end);
+        forcedPosition = end;
+        return lastSeq[0];
+    }
+
+    /**
+     * Appends one framed record from the payload's position to its limit.
+     *
+     * @return false if it does not fit, nothing is written then.
+     */
+    boolean append(ByteBuffer payload) {
+        int length = payload.remaining();
+        // Keep room for the end marker
+        if (buffer.remaining() < FRAME_HEADER + length + 4) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        // Length last, so a record is only visible once complete
+        buffer.putInt(start, length);
+        return true;
+    }
+
+    /**
+     * Flushes what was appended since the last call to disk.
+     *
+     * @return The position up to which the segment is durable.
+     */
+    int force() {
+        int position = buffer.position();
+        if (position > forcedPosition) {
+            buffer.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+        return position;
+    }
+
+    void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    /**
+     * Reads the records in the first {@code limit} bytes of the file.
+     *
+     * @param handler Gets each record's payload; returns false to stop.
+     */
+    void read(long limit, Predicate<ByteBuffer> handler) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = Math.min(limit, file.size());
+            if (length < FRAME_HEADER) return;
+            scan(file.map(FileChannel.MapMode.READ_ONLY, 0, length), (int) length, handler);
+        }
+    }
+
+    // Walks the valid records up to limit, returns the position right after the last one read
+    private static int scan(ByteBuffer data, int limit, Predicate<ByteBuffer> handler) {
+        int position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + FRAME_HEADER <= limit) {
+            int length = data.getInt(position);
+            if (length <= 0 || position + FRAME_HEADER + length > limit) break;
+            ByteBuffer payload = data.slice(position + FRAME_HEADER, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != data.getInt(position + 4)) break;
+            position += FRAME_HEADER + length;
+            if (!handler.test(payload)) break;
+        }
+        return position;
+    }
+}
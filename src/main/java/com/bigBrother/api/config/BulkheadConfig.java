@@ -0,0 +1,49 @@
+package com.bigBrother.api.config;
+
+import com.bigBrother.api.filters.BulkheadFilter;
+import com.bigBrother.api.utils.Bulkhead;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Separate capacity per class of traffic for logins, reads and writes, so one class cannot hold all the request
+ * threads the others need; uploads have their own executor in {@code UploadsController}. Every class reports
+ * {@code api.bulkhead.active}, {@code api.bulkhead.queued} and {@code api.bulkhead.rejected}, tagged with the class.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(
+            MeterRegistry meterRegistry,
+            @Value("${bulkhead.auth.max-concurrent:8}") int authConcurrent,
+            @Value("${bulkhead.auth.max-waiting:32}") int authWaiting,
+            @Value("${bulkhead.reads.max-concurrent:80}") int readsConcurrent,
+            @Value("${bulkhead.reads.max-waiting:40}") int readsWaiting,
+            @Value("${bulkhead.writes.max-concurrent:24}") int writesConcurrent,
+            @Value("${bulkhead.writes.max-waiting:16}") int writesWaiting,
+            @Value("${bulkhead.max-wait:500ms}") Duration maxWait) {
+        Bulkhead auth = register(new Bulkhead("auth", authConcurrent, authWaiting, maxWait), meterRegistry);
+        Bulkhead reads = register(new Bulkhead("reads", readsConcurrent, readsWaiting, maxWait), meterRegistry);
+        Bulkhead writes = register(new Bulkhead("writes", writesConcurrent, writesWaiting, maxWait), meterRegistry);
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(new BulkheadFilter(auth, reads, writes, meterRegistry));
+        // Right after the request trace, so rejected requests cost no authentication work but still show up in traces
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    private static Bulkhead register(Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        Gauge.builder("api.bulkhead.active", bulkhead, Bulkhead::getActive).tag("class", bulkhead.getName()).register(meterRegistry);
+        Gauge.builder("api.bulkhead.queued", bulkhead, Bulkhead::getWaiting).tag("class", bulkhead.getName()).register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -1,6 +1,8 @@
 package com.bigBrother.api.config;
 
 import com.bigBrother.api.filters.JwtAuthenticationFilter;
+import com.bigBrother.api.filters.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,18 +28,27 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   RateLimitFilter rateLimitFilter) throws Exception {
         http.csrf().disable()
             .cors()
             .and()
             .authorizeHttpRequests()
+            // The request was authorized before going async (uploads); its async dispatch only writes the result
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+            // Error pages keep the status of the request that failed (e.g. 406) instead of turning into a 403
+            .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
             .requestMatchers("/api/auth/**").permitAll()
             .requestMatchers("/actuator/auth/**").permitAll()
+            // Load balancer and orchestrator probes carry no credentials
+            .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+            .requestMatchers("/.well-known/jwks.json").permitAll()
             .anyRequest().authenticated()
             .and()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
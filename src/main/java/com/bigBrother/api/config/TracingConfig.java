@@ -0,0 +1,93 @@
+package com.bigBrother.api.config;
+
+import com.bigBrother.api.filters.RequestTraceFilter;
+import com.bigBrother.api.tracing.RequestTracer;
+import com.bigBrother.api.tracing.RequestTracesEndpoint;
+import com.bigBrother.api.tracing.SlowRequestLog;
+import com.bigBrother.api.tracing.TraceCallableInterceptor;
+import com.bigBrother.api.tracing.TraceHandlerInterceptor;
+import com.bigBrother.api.tracing.TraceSessionEventListener;
+import com.bigBrother.api.tracing.TraceStatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wires the lightweight per-request tracing: filter, controller interceptor, async task interceptor,
+ * repository listener, Hibernate statement inspector and the slow request endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public SlowRequestLog slowRequestLog(@Value("${tracing.buffer-size:100}") int bufferSize) {
+        return new SlowRequestLog(bufferSize);
+    }
+
+    @Bean
+    public RequestTracer requestTracer(SlowRequestLog slowRequestLog,
+                                       @Value("${tracing.slow-request-ms:500}") long slowRequestMs,
+                                       @Value("${tracing.slow-query-ms:100}") long slowQueryMs,
+                                       @Value("${tracing.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        return new RequestTracer(slowRequestLog, slowRequestMs, slowQueryMs, nPlusOneThreshold);
+    }
+
+    @Bean
+    public RequestTracesEndpoint requestTracesEndpoint(SlowRequestLog slowRequestLog) {
+        return new RequestTracesEndpoint(slowRequestLog);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilter(RequestTracer requestTracer) {
+        FilterRegistrationBean<RequestTraceFilter> registration = new FilterRegistrationBean<>(new RequestTraceFilter(requestTracer));
+        // Ahead of the security filter chain so authentication is part of the trace
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tracingHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put("hibernate.session_factory.statement_inspector", new TraceStatementInspector());
+            properties.put("hibernate.session.events.auto", TraceSessionEventListener.class.getName());
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor() {
+        RepositoryMethodInvocationListener listener =
+                invocation -> RequestTracer.recordRepositoryCall(invocation.getDuration(TimeUnit.NANOSECONDS));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TraceHandlerInterceptor());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new TraceCallableInterceptor());
+    }
+}
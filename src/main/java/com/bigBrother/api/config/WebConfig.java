@@ -1,13 +1,20 @@
 package com.bigBrother.api.config;
 
+import com.bigBrother.api.converters.ProtobufDtoHttpMessageConverter;
+import com.bigBrother.api.tracing.TraceClientHttpRequestInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
 
     @Bean
     public CorsFilter corsFilter() {
@@ -22,4 +29,18 @@ public class WebConfig {
 
         return new CorsFilter(source);
     }
+
+    // Shared client for outbound calls, timed by the request tracer when one is active
+    @Bean
+    public RestTemplate restTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new TraceClientHttpRequestInterceptor());
+        return restTemplate;
+    }
+
+    // Appended last so JSON stays the default; protobuf is only picked when explicitly accepted
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufDtoHttpMessageConverter());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.audit.AuditJournal;
+import com.bigBrother.api.audit.AuditRecord;
+import com.bigBrother.api.dtos.AuditEntryDTO;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.exceptions.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Read access to the audit journal: who changed which camera or user, how and when.
+ * Every replica journals the changes committed through it, so these endpoints return only the answering
+ * replica's entries, tagged with its id (also in the X-Audit-Replica header). A seq is only meaningful per replica:
+ * pass {@code replica} when paging so a page from another replica is refused instead of silently mixed in.
+ */
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final String REPLICA_HEADER = "X-Audit-Replica";
+
+    @Autowired
+    private AuditJournal auditJournal;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Audit entries in journal order, optionally filtered. Page with {@code after}: pass the seq of the last entry
+     * of the previous page.
+     *
+     * @param type camera or user, optional.
+     * @param entityId Only changes of this camera or user, optional.
+     * @param actor Only changes made by this user, optional.
+     * @param from Only changes at or after this time, optional.
+     * @param to Only changes before this time, optional.
+     * @param after Only entries with a higher seq.
+     * @param limit Maximum number of entries, at most 1000.
+     * @param replica The replica the seqs refer to, optional; 409 if this is another replica.
+     * @return List of AuditEntryDTO objects.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getEntries(@RequestParam(required = false) String type,
+                                        @RequestParam(required = false) Long entityId,
+                                        @RequestParam(required = false) String actor,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                        @RequestParam(defaultValue = "0") long after,
+                                        @RequestParam(defaultValue = "100") int limit,
+                                        @RequestParam(required = false) String replica) throws IOException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            ErrorResponse errorResponse = new ErrorResponse("limit must be between 1 and " + MAX_LIMIT, "Invalid limit");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        ResponseEntity<ErrorResponse> wrongReplica = checkReplica(replica);
+        if (wrongReplica != null) {
+            return wrongReplica;
+        }
+        EntityType entityType = type != null ? entityType(type) : null;
+        if (type != null && entityType == null) {
+            ErrorResponse errorResponse = new ErrorResponse("type must be camera or user", "Invalid type");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        Predicate<AuditRecord> filter = filter(entityType, entityId, actor, from, to);
+        List<AuditEntryDTO> entries = new ArrayList<>();
+        auditJournal.read(after, record -> {
+            if (filter.test(record)) {
+                entries.add(convertToDTO(record));
+            }
+            return entries.size() < limit;
+        });
+        return ResponseEntity.ok().header(REPLICA_HEADER, auditJournal.getReplicaId()).body(entries);
+    }
+
+    /**
+     * All matching audit entries of this replica as newline-delimited JSON, streamed straight from the journal.
+     * Takes the same filters as {@link #getEntries}, without a limit.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String type,
+                                                        @RequestParam(required = false) Long entityId,
+                                                        @RequestParam(required = false) String actor,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                        @RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(required = false) String replica) {
+        ResponseEntity<ErrorResponse> wrongReplica = checkReplica(replica);
+        if (wrongReplica != null) {
+            return streamed(wrongReplica);
+        }
+        EntityType entityType = type != null ? entityType(type) : null;
+        if (type != null && entityType == null) {
+            ErrorResponse errorResponse = new ErrorResponse("type must be camera or user", "Invalid type");
+            return streamed(new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST));
+        }
+        Predicate<AuditRecord> filter = filter(entityType, entityId, actor, from, to);
+        ObjectWriter writer = objectMapper.writerFor(AuditEntryDTO.class);
+        StreamingResponseBody body = out -> {
+            try {
+                auditJournal.read(after, record -> {
+                    if (filter.test(record)) {
+                        writeLine(writer, out, convertToDTO(record));
+                    }
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=\"audit.ndjson\"")
+                .header(REPLICA_HEADER, auditJournal.getReplicaId())
+                .body(body);
+    }
+
+    // A conflict if the caller's seqs belong to another replica's journal
+    private ResponseEntity<ErrorResponse> checkReplica(String replica) {
+        String current = auditJournal.getReplicaId();
+        if (replica == null || replica.equals(current)) {
+            return null;
+        }
+        ErrorResponse errorResponse = new ErrorResponse("This is replica " + current + ", the entries of replica " + replica
+                + " are only served by that replica", "Wrong replica");
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    // An error of the export, which must return a StreamingResponseBody: written as plain JSON, not NDJSON
+    private ResponseEntity<StreamingResponseBody> streamed(ResponseEntity<ErrorResponse> error) {
+        return ResponseEntity.status(error.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error.getBody()));
+    }
+
+    // The entity type named by the type parameter, null if there is none by that name
+    private static EntityType entityType(String type) {
+        for (EntityType entityType : EntityType.values()) {
+            if (entityType.name().equalsIgnoreCase(type)) {
+                return entityType;
+            }
+        }
+        return null;
+    }
+
+    private static Predicate<AuditRecord> filter(EntityType typeFilter, Long entityId, String actor, Instant from, Instant to) {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        return record -> (typeFilter == null || record.entityType() == typeFilter)
+                && (entityId == null || record.entityId() == entityId)
+                && (actor == null || record.actor().equals(actor))
+                && record.timestamp() >= fromMillis && record.timestamp() < toMillis;
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream out, AuditEntryDTO entry) {
+        try {
+            out.write(writer.writeValueAsBytes(entry));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Convert AuditRecord to AuditEntryDTO
+    private AuditEntryDTO convertToDTO(AuditRecord record) {
+        AuditEntryDTO entry = new AuditEntryDTO();
+        entry.setReplica(auditJournal.getReplicaId());
+        entry.setSeq(record.seq());
+        entry.setTimestamp(Instant.ofEpochMilli(record.timestamp()));
+        entry.setActor(record.actor());
+        entry.setEntityType(record.entityType().name());
+        entry.setEntityId(record.entityId());
+        entry.setOperation(record.operation().name());
+        entry.setChanges(record.changes());
+        return entry;
+    }
+}
@@ -2,6 +2,10 @@ package com.bigBrother.api.controllers;
 
 import com.bigBrother.api.models.UserModel;
 import com.bigBrother.api.services.JwtService;
+import com.bigBrother.api.services.RefreshTokenService;
+import com.bigBrother.api.services.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,11 +36,17 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     /**
-     * Authenticates a user and returns a JWT token if credentials are valid.
+     * Authenticates a user and returns a short-lived JWT access token plus a refresh token if credentials are valid.
      *
      * @param authRequest The authentication request containing username and password.
-     * @return JWT token if authentication is successful, otherwise an error response.
+     * @return JWT and refresh token if authentication is successful, otherwise an error response.
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
@@ -45,12 +55,57 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())
             );
             String token = jwtService.generateToken(authRequest.getUsername());
-            return ResponseEntity.ok(new AuthResponse(token));
+            String refreshToken = refreshTokenService.issue(authRequest.getUsername());
+            return ResponseEntity.ok(new AuthResponse(token, refreshToken, jwtService.getAccessTokenTtl().toSeconds()));
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
         }
     }
 
+    /**
+     * Exchanges a refresh token for a new access token. The refresh token is rotated on every call.
+     *
+     * @param refreshRequest The request containing the current refresh token.
+     * @return New JWT and refresh token, or 401 if the refresh token is not valid anymore.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        if (refreshRequest.getRefreshToken() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+        }
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            String token = jwtService.generateToken(rotation.username());
+            return ResponseEntity.ok(new AuthResponse(token, rotation.refreshToken(), jwtService.getAccessTokenTtl().toSeconds()));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Revokes the presented access token and the refresh token family.
+     *
+     * @param authHeader The Authorization header with the current access token, if any.
+     * @param refreshRequest The request containing the refresh token, if any.
+     * @return No content.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                       @RequestBody(required = false) RefreshRequest refreshRequest) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtService.parseClaims(authHeader.substring(7));
+                tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+            } catch (JwtException e) {
+                // Already expired or invalid, nothing to revoke
+            }
+        }
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Registers a new user if the username and email are unique.
      *
@@ -101,16 +156,44 @@ class AuthRequest {
 }
 
 /**
- * Response containing the JWT token.
+ * Request body for refreshing or revoking a refresh token.
+ */
+class RefreshRequest {
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
+
+/**
+ * Response containing the JWT access token and the refresh token.
  */
 class AuthResponse {
     private String token;
+    private String refreshToken;
+    private long expiresIn;
 
-    public AuthResponse(String token) {
+    public AuthResponse(String token, String refreshToken, long expiresIn) {
         this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
     }
 
     public String getToken() {
         return token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    // Access token lifetime in seconds
+    public long getExpiresIn() {
+        return expiresIn;
+    }
 }
\ No newline at end of file
@@ -1,16 +1,35 @@
 package com.bigBrother.api.controllers;
 
+import com.bigBrother.api.dtos.CameraChangesDTO;
 import com.bigBrother.api.dtos.CameraDTO;
+import com.bigBrother.api.dtos.CameraImportErrorDTO;
+import com.bigBrother.api.dtos.CameraImportProgressDTO;
 import com.bigBrother.api.exceptions.ErrorResponse;
 import com.bigBrother.api.exceptions.ResourceNotFoundException;
 import com.bigBrother.api.models.CameraModel;
 import com.bigBrother.api.repositories.CameraRepository;
+import com.bigBrother.api.repositories.CameraRepositoryCustom;
+import com.bigBrother.api.services.CameraCache;
+import com.bigBrother.api.services.CameraChangeService;
+import com.bigBrother.api.services.CameraTransferService;
+import com.bigBrother.api.utils.ETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 /**
@@ -20,17 +39,136 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/cameras")
 public class CameraController {
 
+    private static final int MAX_BATCH_IDS = 1000;
+    private static final String CHANGE_SEQ_HEADER = "X-Change-Seq";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private CameraRepository cameraRepository;
 
+    @Autowired
+    private CameraCache cameraCache;
+
+    @Autowired
+    private CameraChangeService cameraChangeService;
+
+    @Autowired
+    private CameraTransferService cameraTransferService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * Retrieves all cameras.
+     * Retrieves all cameras, or only the given ids with a single query.
+     * With {@code fields} only those fields (plus the id) are read from the database and returned.
      *
-     * @return List of CameraDTO objects.
+     * @param ids Comma-separated camera ids, optional.
+     * @param fields Comma-separated field names, optional.
+     * @return List of CameraDTO objects, or of partial objects when fields are given. The full list carries
+     *         the change sequence it reflects in the X-Change-Seq header, as a starting point for {@link #getChanges}.
      */
     @GetMapping
-    public List<CameraDTO> getAllCameras() {
-        return cameraRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+    public ResponseEntity<?> getAllCameras(@RequestParam(required = false) List<Long> ids,
+                                           @RequestParam(required = false) List<String> fields) {
+        if (ids != null && ids.size() > MAX_BATCH_IDS) {
+            ErrorResponse errorResponse = new ErrorResponse("At most " + MAX_BATCH_IDS + " ids per request", "Too many ids");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if (fields != null) {
+            for (String field : fields) {
+                if (!CameraRepositoryCustom.PROJECTABLE_FIELDS.contains(field)) {
+                    ErrorResponse errorResponse = new ErrorResponse("Unknown field: " + field, "Invalid fields");
+                    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+                }
+            }
+            return ResponseEntity.ok(cameraRepository.findFieldsByIds(ids, fields));
+        }
+        if (ids != null) {
+            List<CameraModel> cameras = cameraRepository.findAllById(ids);
+            return ResponseEntity.ok(cameras.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        }
+        CameraCache.Snapshot snapshot = cameraCache.snapshot();
+        return ResponseEntity.ok()
+                .header(CHANGE_SEQ_HEADER, String.valueOf(snapshot.changeSeq()))
+                .body(snapshot.cameras().stream().map(this::convertToDTO).collect(Collectors.toList()));
+    }
+
+    /**
+     * Camera changes since a change sequence, for clients that already hold the camera list.
+     * Start from the X-Change-Seq header of the full list, then pass the returned seq as the next {@code since}.
+     * Deleted cameras come back as ids only. When {@code resync} is set the client is too far behind
+     * and must reload the full list.
+     *
+     * @param since The last change sequence the client has applied.
+     * @return The changed cameras, the deleted ids and the sequence they bring the client to.
+     */
+    @GetMapping("/changes")
+    public CameraChangesDTO getChanges(@RequestParam long since) {
+        CameraChangeService.Changes changes = cameraChangeService.changesSince(since);
+        CameraChangesDTO changesDTO = new CameraChangesDTO();
+        changesDTO.setSeq(changes.seq());
+        changesDTO.setResync(changes.resync());
+        changesDTO.setHasMore(changes.hasMore());
+        changesDTO.setUpserts(changes.upserts().stream().map(this::convertToDTO).collect(Collectors.toList()));
+        changesDTO.setDeletes(changes.deletes());
+        return changesDTO;
+    }
+
+    /**
+     * All cameras as newline-delimited JSON, one CameraDTO per line, streamed from the database as they are read.
+     * The X-Change-Seq header is the change sequence the export is at least as recent as, to continue
+     * with {@link #getChanges} afterwards.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCameras() {
+        long changeSeq = cameraChangeService.currentSeq();
+        StreamingResponseBody body = out -> {
+            try {
+                cameraTransferService.export(camera -> writeLine(out, convertToDTO(camera)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(CHANGE_SEQ_HEADER, String.valueOf(changeSeq))
+                .header("Content-Disposition", "attachment; filename=\"cameras.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Creates or updates cameras from newline-delimited JSON, one camera per line in the format of the export,
+     * matched by name. Lines are read and committed in batches as they arrive, so the response starts before the
+     * upload ends: a {@code progress} line after every batch, an {@code error} line with the line number for every
+     * line that was skipped, and a final {@code done} line with the totals.
+     */
+    @PostMapping(value = "/import", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importCameras(HttpServletRequest request) {
+        StreamingResponseBody body = out -> {
+            try {
+                CameraTransferService.ImportCounts counts = cameraTransferService.importCameras(request.getInputStream(),
+                        new CameraTransferService.ImportListener() {
+                            @Override
+                            public void onError(long line, String message) {
+                                CameraImportErrorDTO error = new CameraImportErrorDTO();
+                                error.setType("error");
+                                error.setLine(line);
+                                error.setError(message);
+                                writeLine(out, error);
+                            }
+
+                            @Override
+                            public void onProgress(CameraTransferService.ImportCounts counts) {
+                                writeLine(out, convertToDTO("progress", counts));
+                                flush(out);
+                            }
+                        });
+                writeLine(out, convertToDTO("done", counts));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     /**
@@ -68,13 +206,13 @@ public class CameraController {
      * Retrieves a camera by its ID.
      *
      * @param id The camera ID.
-     * @return The CameraDTO if found.
+     * @return The CameraDTO if found, with its version as ETag.
      */
     @GetMapping("/{id}")
     public ResponseEntity<CameraDTO> getCameraById(@PathVariable Long id) {
-        CameraModel camera = cameraRepository.findById(id)
+        CameraModel camera = cameraCache.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Camera not found with id: " + id));
-        return ResponseEntity.ok(convertToDTO(camera));
+        return ResponseEntity.ok().eTag(ETags.of(camera.getVersion())).body(convertToDTO(camera));
     }
 
     /**
@@ -105,6 +243,51 @@ public class CameraController {
         return convertToDTO(updatedCamera);
     }
 
+    /**
+     * Partially updates a camera with a single UPDATE of the given fields, without reading it first.
+     * Send the ETag of a previous read as If-Match to get a 412 instead of overwriting someone else's change.
+     *
+     * @param id The camera ID.
+     * @param changes The fields to change and their new values.
+     * @param ifMatch The expected version, optional.
+     * @return No content, with the new version as ETag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchCamera(@PathVariable Long id, @RequestBody Map<String, Object> changes,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (changes.isEmpty()) {
+            ErrorResponse errorResponse = new ErrorResponse("No fields to update", "Empty patch");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (!CameraRepositoryCustom.PATCHABLE_FIELDS.contains(change.getKey())) {
+                ErrorResponse errorResponse = new ErrorResponse("Field cannot be patched: " + change.getKey(), "Invalid fields");
+                return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+            }
+            if (change.getValue() instanceof Map || change.getValue() instanceof List) {
+                ErrorResponse errorResponse = new ErrorResponse("Field " + change.getKey() + " must be a string", "Invalid value");
+                return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+            }
+        }
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        OptionalLong version;
+        try {
+            version = cameraRepository.patch(id, changes, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            ErrorResponse errorResponse = new ErrorResponse("The new values conflict with another camera or leave a required field empty", "Constraint violation");
+            return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        }
+        if (version.isEmpty()) {
+            // Only the failure path pays for a second query, to tell a stale version from a missing camera
+            if (expectedVersion != null && cameraRepository.existsById(id)) {
+                ErrorResponse errorResponse = new ErrorResponse("Camera " + id + " was modified by someone else, reload it and retry", "Version mismatch");
+                return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+            }
+            throw new ResourceNotFoundException("Camera not found with id: " + id);
+        }
+        return ResponseEntity.noContent().eTag(ETags.of(version.getAsLong())).build();
+    }
+
     /**
      * Deletes a camera by its ID.
      *
@@ -130,12 +313,41 @@ public class CameraController {
      */
     @GetMapping("/search")
     public List<CameraDTO> searchCamerasByName(@RequestParam("name") String name) {
-        return cameraRepository.findAll().stream()
+        return cameraCache.findAll().stream()
                 .filter(cam -> cam.getName() != null && cam.getName().toLowerCase().contains(name.toLowerCase()))
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Convert import counts to CameraImportProgressDTO
+    private CameraImportProgressDTO convertToDTO(String type, CameraTransferService.ImportCounts counts) {
+        CameraImportProgressDTO progressDTO = new CameraImportProgressDTO();
+        progressDTO.setType(type);
+        progressDTO.setLines(counts.lines());
+        progressDTO.setCreated(counts.created());
+        progressDTO.setUpdated(counts.updated());
+        progressDTO.setUnchanged(counts.unchanged());
+        progressDTO.setFailed(counts.failed());
+        return progressDTO;
+    }
+
     // Convert CameraModel to CameraDTO
     private CameraDTO convertToDTO(CameraModel camera) {
         CameraDTO cameraDTO = new CameraDTO();
@@ -150,6 +362,7 @@ public class CameraController {
         cameraDTO.setTune(camera.getTune());
         cameraDTO.setBuffer(camera.getBuffer());
         cameraDTO.setRotation(camera.getRotation());
+        cameraDTO.setVersion(camera.getVersion());
         return cameraDTO;
     }
 
@@ -0,0 +1,37 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.services.SigningKeyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the public keys used to sign access tokens so other services can validate tokens locally.
+ */
+@RestController
+public class JwksController {
+
+    @Autowired
+    private SigningKeyService signingKeyService;
+
+    @Value("${jwt.jwks.cache-ttl:10m}")
+    private Duration cacheTtl;
+
+    /**
+     * Returns the JSON Web Key Set.
+     *
+     * @return The key set with a public cache lifetime shorter than the key publish delay.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(cacheTtl).cachePublic())
+                .body(signingKeyService.jwks());
+    }
+}
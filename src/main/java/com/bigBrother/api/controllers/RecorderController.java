@@ -0,0 +1,157 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.dtos.CameraDTO;
+import com.bigBrother.api.dtos.RecorderAssignmentDTO;
+import com.bigBrother.api.dtos.RecorderNodeDTO;
+import com.bigBrother.api.exceptions.ErrorResponse;
+import com.bigBrother.api.exceptions.ResourceNotFoundException;
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.models.RecorderNodeModel;
+import com.bigBrother.api.services.RecorderService;
+import com.bigBrother.api.utils.ETags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Controller for the recorder nodes and the cameras assigned to each.
+ * Recorders register on startup, send a heartbeat every few seconds and poll their assignment.
+ */
+@RestController
+@RequestMapping("/api/recorders")
+public class RecorderController {
+
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final double MAX_CAPACITY = 100;
+
+    @Autowired
+    private RecorderService recorderService;
+
+    /**
+     * Lists the registered recorders with their liveness and current load.
+     *
+     * @return List of RecorderNodeDTO objects.
+     */
+    @GetMapping
+    public List<RecorderNodeDTO> getRecorders() {
+        return recorderService.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Registers a recorder, or updates the address and capacity of a known one. Registering again after
+     * a restart is fine; the recorder keeps its place on the ring and so its cameras.
+     *
+     * @param recorder Name, optional address and capacity (default 1, relative to a standard host).
+     * @return The registered RecorderNodeDTO or error response.
+     */
+    @PostMapping
+    public ResponseEntity<?> registerRecorder(@RequestBody RecorderNodeDTO recorder) {
+        if (recorder.getName() == null || recorder.getName().isBlank() || recorder.getName().length() > MAX_NAME_LENGTH) {
+            ErrorResponse errorResponse = new ErrorResponse("Recorder name is required, at most " + MAX_NAME_LENGTH + " characters", "Invalid recorder name");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        double capacity = recorder.getCapacity() != null ? recorder.getCapacity() : 1.0;
+        if (!(capacity > 0 && capacity <= MAX_CAPACITY)) {
+            ErrorResponse errorResponse = new ErrorResponse("Capacity must be above 0 and at most " + MAX_CAPACITY, "Invalid capacity");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        RecorderNodeModel node = recorderService.register(recorder.getName().trim(), recorder.getAddress(), capacity);
+        return ResponseEntity.ok(convertToDTO(node));
+    }
+
+    /**
+     * Keeps a recorder alive. The ETag is the tag of its current assignment, so it only needs to
+     * fetch the assignment when the tag changes.
+     *
+     * @param name The recorder name.
+     * @return No content, or 404 if the recorder must register again.
+     */
+    @PostMapping("/{name}/heartbeat")
+    public ResponseEntity<Void> heartbeat(@PathVariable String name) {
+        if (!recorderService.heartbeat(name)) {
+            throw new ResourceNotFoundException("Recorder not found with name: " + name);
+        }
+        return ResponseEntity.noContent().eTag(ETags.of(recorderService.currentAssignment(name).tag())).build();
+    }
+
+    /**
+     * The cameras a recorder should record. Send the last ETag as If-None-Match to get a 304 when nothing changed.
+     *
+     * @param name The recorder name.
+     * @return The recorder's RecorderAssignmentDTO, with the camera change sequence it was computed from;
+     * empty while the recorder is not alive.
+     */
+    @GetMapping("/{name}/assignment")
+    public ResponseEntity<RecorderAssignmentDTO> getAssignment(@PathVariable String name,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RecorderService.Assignment assignment = recorderService.assignmentOf(name);
+        if (ETags.matchesIfNoneMatch(ifNoneMatch, assignment.tag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(assignment.tag())).build();
+        }
+        RecorderAssignmentDTO assignmentDTO = new RecorderAssignmentDTO();
+        assignmentDTO.setNode(name);
+        assignmentDTO.setLoad(assignment.load());
+        assignmentDTO.setCameras(assignment.cameras().stream().map(this::convertToDTO).collect(Collectors.toList()));
+        assignmentDTO.setChangeSeq(assignment.changeSeq());
+        return ResponseEntity.ok().eTag(ETags.of(assignment.tag())).body(assignmentDTO);
+    }
+
+    /**
+     * Removes a recorder at once, for a clean shutdown; its cameras move to the other recorders.
+     *
+     * @param name The recorder name.
+     * @return No content response if removed.
+     */
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> deregisterRecorder(@PathVariable String name) {
+        if (!recorderService.deregister(name)) {
+            throw new ResourceNotFoundException("Recorder not found with name: " + name);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Convert RecorderNodeModel to RecorderNodeDTO
+    private RecorderNodeDTO convertToDTO(RecorderNodeModel node) {
+        RecorderNodeDTO recorderDTO = new RecorderNodeDTO();
+        recorderDTO.setName(node.getName());
+        recorderDTO.setAddress(node.getAddress());
+        recorderDTO.setCapacity(node.getCapacity());
+        recorderDTO.setAlive(recorderService.isAlive(node));
+        recorderDTO.setRegisteredAt(node.getRegisteredAt());
+        recorderDTO.setLastHeartbeat(node.getLastHeartbeat());
+        RecorderService.Assignment assignment = recorderService.currentAssignment(node.getName());
+        recorderDTO.setCameras(assignment.cameras().size());
+        recorderDTO.setLoad(assignment.load());
+        return recorderDTO;
+    }
+
+    // Convert CameraModel to CameraDTO
+    private CameraDTO convertToDTO(CameraModel camera) {
+        CameraDTO cameraDTO = new CameraDTO();
+        cameraDTO.setId(camera.getId());
+        cameraDTO.setName(camera.getName());
+        cameraDTO.setDevice(camera.getDevice());
+        cameraDTO.setResolution(camera.getResolution());
+        cameraDTO.setFps(camera.getFps());
+        cameraDTO.setPostUrl(camera.getPostUrl());
+        cameraDTO.setCodec(camera.getCodec());
+        cameraDTO.setPreset(camera.getPreset());
+        cameraDTO.setTune(camera.getTune());
+        cameraDTO.setBuffer(camera.getBuffer());
+        cameraDTO.setRotation(camera.getRotation());
+        cameraDTO.setVersion(camera.getVersion());
+        return cameraDTO;
+    }
+
+    // Exception handler for ResourceNotFoundException
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), "Resource not found");
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.exceptions.ErrorResponse;
+import com.bigBrother.api.services.RecordingSegmentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Controller for the recorded footage timeline of a camera.
+ */
+@RestController
+@RequestMapping("/api/cameras/{cameraId}/segments")
+public class RecordingSegmentController {
+
+    @Autowired
+    private RecordingSegmentService recordingSegmentService;
+
+    /**
+     * Retrieves the segments of a camera overlapping a time range. Defaults to the last hour.
+     *
+     * @param cameraId The camera ID.
+     * @param from Range start (ISO-8601), optional.
+     * @param to Range end (ISO-8601), optional.
+     * @return The segments ordered by start time, or 400 if the range does not start before it ends.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getSegments(@PathVariable Long cameraId,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (!start.isBefore(end)) {
+            ErrorResponse errorResponse = new ErrorResponse("from must be before to", "Invalid time range");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(recordingSegmentService.find(cameraId, start, end));
+    }
+}
@@ -0,0 +1,66 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.dtos.TelemetrySampleDTO;
+import com.bigBrother.api.dtos.TelemetrySeriesDTO;
+import com.bigBrother.api.services.TelemetryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller for camera runtime telemetry reported by recorders.
+ */
+@RestController
+@RequestMapping("/api/telemetry")
+public class TelemetryController {
+
+    @Autowired
+    private TelemetryService telemetryService;
+
+    /**
+     * Ingests a batch of samples. Samples are kept in memory and aggregated, so this never waits on the database.
+     *
+     * @param samples The samples, for one or several cameras.
+     * @return 202 with the number of accepted samples.
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Integer>> ingest(@RequestBody List<TelemetrySampleDTO> samples) {
+        int accepted = telemetryService.record(samples);
+        return ResponseEntity.accepted().body(Map.of("accepted", accepted));
+    }
+
+    /**
+     * Retrieves aggregated windows for a camera. Defaults to the last 15 minutes.
+     *
+     * @param id The camera ID.
+     * @param from Range start (ISO-8601), optional.
+     * @param to Range end (ISO-8601), optional.
+     * @return The camera's telemetry series.
+     */
+    @GetMapping("/cameras/{id}")
+    public TelemetrySeriesDTO getSeries(@PathVariable Long id,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofMinutes(15));
+        return telemetryService.series(id, start, end);
+    }
+
+    /**
+     * Retrieves the most recent raw samples of a camera held by this node.
+     *
+     * @param id The camera ID.
+     * @param limit Maximum number of samples.
+     * @return The samples, oldest first.
+     */
+    @GetMapping("/cameras/{id}/latest")
+    public List<TelemetrySampleDTO> getLatest(@PathVariable Long id, @RequestParam(defaultValue = "60") int limit) {
+        return telemetryService.latest(id, limit);
+    }
+}
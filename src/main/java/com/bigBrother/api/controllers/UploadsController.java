@@ -1,40 +1,199 @@
 package com.bigBrother.api.controllers;
 
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import com.bigBrother.api.dtos.UploadProgressDTO;
+import com.bigBrother.api.exceptions.ErrorResponse;
+import com.bigBrother.api.exceptions.UploadInProgressException;
+import com.bigBrother.api.services.ContentManagerClient;
+import com.bigBrother.api.services.RecordingSegmentService;
+import com.bigBrother.api.services.UploadProgressRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.http.HttpStatus;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/upload")
 public class UploadsController {
 
+    @Autowired
+    private ContentManagerClient contentManagerClient;
+
+    @Autowired
+    private UploadProgressRegistry uploadProgressRegistry;
+
+    @Autowired
+    private RecordingSegmentService recordingSegmentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bulkhead.uploads.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${bulkhead.uploads.max-waiting:32}")
+    private int maxWaiting;
+
+    @Value("${upload.timeout:6h}")
+    private Duration timeout;
+
+    // Uploads run here rather than on Tomcat's request threads, which stay free for short requests
+    private ThreadPoolTaskExecutor uploadExecutor;
+
+    @PostConstruct
+    public void init() {
+        Counter rejected = Counter.builder("api.bulkhead.rejected").tag("class", "uploads").register(meterRegistry);
+        uploadExecutor = new ThreadPoolTaskExecutor();
+        uploadExecutor.setThreadNamePrefix("upload-");
+        uploadExecutor.setCorePoolSize(maxConcurrent);
+        uploadExecutor.setMaxPoolSize(maxConcurrent);
+        uploadExecutor.setQueueCapacity(maxWaiting);
+        uploadExecutor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("All " + maxConcurrent + " upload slots and " + maxWaiting + " queue places are taken");
+        });
+        uploadExecutor.initialize();
+        Gauge.builder("api.bulkhead.active", uploadExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("class", "uploads").register(meterRegistry);
+        Gauge.builder("api.bulkhead.queued", uploadExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("class", "uploads").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Uploads an image. Runs on the upload executor like {@link #uploadVideo}.
+     */
     @PostMapping("/image")
-    public ResponseEntity<String> uploadImage(@RequestParam("file") MultipartFile file) {
-        return uploadFile(file, "images");
+    public WebAsyncTask<ResponseEntity<String>> uploadImage(HttpServletRequest request, Principal principal) {
+        return async(() -> {
+            MultipartFile file = file(request);
+            if (file == null) {
+                return ResponseEntity.badRequest().body("A multipart file named file is required");
+            }
+            return uploadFile(file, "images", principal.getName(), request.getParameter("uploadId"));
+        });
     }
 
+    /**
+     * Uploads a video. When a camera and start time are given the video is also recorded
+     * in the camera's segment index so it shows up in timeline queries.
+     * Pass an {@code uploadId} to follow the upload with {@link #getProgress}; it is scoped to the caller, and reusing
+     * one of the caller's ids while that upload is still running is answered with a 409.
+     * <p>
+     * The request thread only queues the upload on the upload executor and returns to Tomcat; the multipart body
+     * is read (multipart is resolved lazily) and sent on from there. For that reason the parameters are read
+     * from the request inside the task: binding them up front would make Tomcat parse the whole body first.
+     * Parameters: {@code file}, and optionally {@code uploadId}, {@code cameraId}, {@code startTime} and
+     * {@code endTime} (ISO date-times).
+     */
     @PostMapping("/video")
-    public ResponseEntity<String> uploadVideo(@RequestParam("file") MultipartFile file) {
-        return uploadFile(file, "videos");
+    public WebAsyncTask<ResponseEntity<String>> uploadVideo(HttpServletRequest request, Principal principal) {
+        return async(() -> {
+            MultipartFile file = file(request);
+            if (file == null) {
+                return ResponseEntity.badRequest().body("A multipart file named file is required");
+            }
+            Long cameraId;
+            Instant startTime;
+            Instant end;
+            try {
+                cameraId = request.getParameter("cameraId") != null ? Long.valueOf(request.getParameter("cameraId")) : null;
+                startTime = instant(request.getParameter("startTime"));
+                Instant endTime = instant(request.getParameter("endTime"));
+                end = endTime != null ? endTime : Instant.now();
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return ResponseEntity.badRequest().body("Invalid parameter: " + e.getMessage());
+            }
+            if (cameraId != null) {
+                if (startTime == null) {
+                    return ResponseEntity.badRequest().body("startTime is required when cameraId is given");
+                }
+                try {
+                    recordingSegmentService.validate(startTime, end);
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(e.getMessage());
+                }
+            }
+
+            ResponseEntity<String> response = uploadFile(file, "videos", principal.getName(), request.getParameter("uploadId"));
+            if (cameraId != null && response.getStatusCode().is2xxSuccessful()) {
+                recordingSegmentService.record(cameraId, startTime, end, file.getSize(), "videos/" + file.getOriginalFilename());
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Progress of one of the caller's uploads, per part when it is sent in parallel parts.
+     * Kept for a few minutes after the upload finished.
+     */
+    @GetMapping("/progress/{uploadId}")
+    public ResponseEntity<?> getProgress(@PathVariable String uploadId, Principal principal) {
+        Optional<UploadProgressDTO> progress = uploadProgressRegistry.find(principal.getName(), uploadId);
+        if (progress.isEmpty()) {
+            ErrorResponse errorResponse = new ErrorResponse("No upload with id: " + uploadId, "Resource not found");
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(progress.get());
     }
 
-    private ResponseEntity<String> uploadFile(MultipartFile file, String folder) {
+    // Every upload slot and queue place is taken
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleTaskRejected(TaskRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").body("Too many uploads in progress, retry later");
+    }
+
+    private WebAsyncTask<ResponseEntity<String>> async(Callable<ResponseEntity<String>> upload) {
+        return new WebAsyncTask<>(timeout.toMillis(), uploadExecutor, upload);
+    }
+
+    private static MultipartFile file(HttpServletRequest request) {
+        return request instanceof MultipartHttpServletRequest multipart ? multipart.getFile("file") : null;
+    }
+
+    private static Instant instant(String value) {
+        return value != null ? DateTimeFormatter.ISO_DATE_TIME.parse(value, Instant::from) : null;
+    }
+
+    private ResponseEntity<String> uploadFile(MultipartFile file, String folder, String owner, String uploadId) {
+        String id = uploadId != null ? uploadId : UUID.randomUUID().toString();
         try {
-            String contentManagerUrl = "http://content-manager:8181/uploads/" + folder + "/" + file.getOriginalFilename();
-            RestTemplate restTemplate = new RestTemplate();
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(file.getContentType()));
-            HttpEntity<byte[]> requestEntity = new HttpEntity<>(file.getBytes(), headers);
-    
-            restTemplate.exchange(contentManagerUrl, HttpMethod.PUT, requestEntity, String.class);
-    
-            return ResponseEntity.ok("File uploaded successfully: " + file.getOriginalFilename());
+            String contentType = file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            // Streamed from the multipart temp file, never loaded into memory
+            contentManagerClient.upload(folder, file.getOriginalFilename(), contentType, file.getSize(), file, owner, id);
+
+            return ResponseEntity.ok().header("X-Upload-Id", id).body("File uploaded successfully: " + file.getOriginalFilename());
+        } catch (UploadInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error uploading file: interrupted");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error uploading file: " + e.getMessage());
         }
@@ -4,15 +4,35 @@ import com.bigBrother.api.dtos.UserDTO;
 import com.bigBrother.api.exceptions.ErrorResponse;
 import com.bigBrother.api.exceptions.ResourceNotFoundException;
 import com.bigBrother.api.models.UserModel;
+import com.bigBrother.api.models.UserPhotoModel;
 import com.bigBrother.api.repositories.UserRepository;
+import com.bigBrother.api.repositories.UserRepositoryCustom;
+import com.bigBrother.api.services.RefreshTokenService;
+import com.bigBrother.api.services.UserPhotoService;
+import com.bigBrother.api.utils.ETags;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,17 +42,57 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int MAX_BATCH_IDS = 1000;
+    // Fields of the fields parameter; photo is read as the photo tag and returned as the photo URL
+    private static final Set<String> FIELDS = Set.of("id", "username", "email", "name", "photo", "version");
+    // A photo URL carries the photo tag, so the photo behind it never changes
+    private static final CacheControl VERSIONED_PHOTO = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+    private static final CacheControl UNVERSIONED_PHOTO = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPhotoService userPhotoService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Value("${users.photo.max-size:2MB}")
+    private DataSize maxPhotoSize;
+
     /**
-     * Retrieves all users.
+     * Retrieves all users, or only the given ids with a single query.
+     * With {@code fields} only those fields (plus the id) are read from the database and returned.
      *
-     * @return List of UserDTO objects.
+     * @param ids Comma-separated user ids, optional.
+     * @param fields Comma-separated field names, optional.
+     * @return List of UserDTO objects, or of partial objects when fields are given.
      */
     @GetMapping
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) List<Long> ids,
+                                           @RequestParam(required = false) List<String> fields) {
+        if (ids != null && ids.size() > MAX_BATCH_IDS) {
+            ErrorResponse errorResponse = new ErrorResponse("At most " + MAX_BATCH_IDS + " ids per request", "Too many ids");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if (fields != null) {
+            Set<String> columns = new LinkedHashSet<>();
+            for (String field : fields) {
+                if (!FIELDS.contains(field)) {
+                    ErrorResponse errorResponse = new ErrorResponse("Unknown field: " + field, "Invalid fields");
+                    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+                }
+                columns.add(field.equals("photo") ? "photoTag" : field);
+            }
+            List<Map<String, Object>> rows = userRepository.findFieldsByIds(ids, new ArrayList<>(columns));
+            if (columns.contains("photoTag")) {
+                rows.forEach(row -> row.put("photo", UserPhotoService.photoUrl((Long) row.get("id"), (String) row.remove("photoTag"))));
+            }
+            return ResponseEntity.ok(rows);
+        }
+        List<UserModel> users = ids != null ? userRepository.findAllById(ids) : userRepository.findAll();
+        return ResponseEntity.ok(users.stream().map(this::convertToDTO).collect(Collectors.toList()));
     }
 
     /**
@@ -65,13 +125,13 @@ public class UserController {
      * Retrieves a user by their ID.
      *
      * @param id The user ID.
-     * @return The UserDTO if found.
+     * @return The UserDTO if found, with its version as ETag.
      */
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         UserModel user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return ResponseEntity.ok(convertToDTO(user));
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(convertToDTO(user));
     }
 
     /**
@@ -90,12 +150,56 @@ public class UserController {
         if (userDetails.getName() != null) user.setName(userDetails.getName());
         if (userDetails.getEmail() != null) user.setEmail(userDetails.getEmail());
         if (userDetails.getUsername() != null) user.setUsername(userDetails.getUsername());
-        if (userDetails.getPhoto() != null) user.setPhoto(userDetails.getPhoto());
 
         UserModel updatedUser = userRepository.save(user);
         return convertToDTO(updatedUser);
     }
 
+    /**
+     * Partially updates a user with a single UPDATE of the given fields, without reading it first.
+     * Send the ETag of a previous read as If-Match to get a 412 instead of overwriting someone else's change.
+     *
+     * @param id The user ID.
+     * @param changes The fields to change and their new values.
+     * @param ifMatch The expected version, optional.
+     * @return No content, with the new version as ETag.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchUser(@PathVariable Long id, @RequestBody Map<String, Object> changes,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (changes.isEmpty()) {
+            ErrorResponse errorResponse = new ErrorResponse("No fields to update", "Empty patch");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (!UserRepositoryCustom.PATCHABLE_FIELDS.contains(change.getKey())) {
+                ErrorResponse errorResponse = new ErrorResponse("Field cannot be patched: " + change.getKey(), "Invalid fields");
+                return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+            }
+            if (change.getValue() instanceof Map || change.getValue() instanceof List) {
+                ErrorResponse errorResponse = new ErrorResponse("Field " + change.getKey() + " must be a string", "Invalid value");
+                return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+            }
+        }
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        OptionalLong version;
+        try {
+            version = userRepository.patch(id, changes, expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            ErrorResponse errorResponse = new ErrorResponse("The new values conflict with another user or leave a required field empty", "Constraint violation");
+            return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        }
+        if (version.isEmpty()) {
+            // Only the failure path pays for a second query, to tell a stale version from a missing user
+            if (expectedVersion != null && userRepository.existsById(id)) {
+                ErrorResponse errorResponse = new ErrorResponse("User " + id + " was modified by someone else, reload it and retry", "Version mismatch");
+                return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+            }
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        return ResponseEntity.noContent().eTag(ETags.of(version.getAsLong())).build();
+    }
+
     /**
      * Deletes a user by their ID.
      *
@@ -107,12 +211,97 @@ public class UserController {
         UserModel user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        // Delete the user
+        // Delete the user, their photo and their refresh tokens
+        refreshTokenService.revokeAllForUser(user.getUsername());
+        userPhotoService.delete(id);
         userRepository.delete(user);
 
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Retrieves a user's photo. Use the photo URL of the user, which names the current photo with {@code v}:
+     * that response can be cached for good. Without it, or with an outdated one, the response must be revalidated,
+     * and a matching If-None-Match gets a 304 without reading the image.
+     *
+     * @param id The user ID.
+     * @param v The photo tag from the photo URL, optional.
+     * @return The image, or a redirect for photos that are only a URL.
+     */
+    @GetMapping("/{id}/photo")
+    public ResponseEntity<?> getPhoto(@PathVariable Long id, @RequestParam(required = false) String v,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String tag = userPhotoService.findTag(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No photo for user with id: " + id));
+        CacheControl cacheControl = tag.equals(v) ? VERSIONED_PHOTO : UNVERSIONED_PHOTO;
+        if (ETags.matchesIfNoneMatch(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(tag)).cacheControl(cacheControl).build();
+        }
+        UserPhotoModel photo = userPhotoService.find(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No photo for user with id: " + id));
+        // Replaced since the tag was read: serve the new one, but not as the one named by v
+        if (!photo.getTag().equals(tag)) {
+            cacheControl = UNVERSIONED_PHOTO;
+        }
+        if (photo.getExternalUrl() != null) {
+            URI location;
+            try {
+                location = URI.create(photo.getExternalUrl());
+            } catch (IllegalArgumentException e) {
+                // Migrated verbatim by an earlier version; there is nothing valid to redirect to
+                throw new ResourceNotFoundException("No valid photo URL for user with id: " + id);
+            }
+            return ResponseEntity.status(HttpStatus.FOUND).location(location)
+                    .eTag(ETags.of(photo.getTag())).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(photo.getContentType()))
+                .eTag(ETags.of(photo.getTag()))
+                .cacheControl(cacheControl)
+                .body(photo.getContent());
+    }
+
+    /**
+     * Replaces a user's photo with the image in the request body.
+     * The body is read up to the size limit only, so oversized uploads are not buffered.
+     *
+     * @param id The user ID.
+     * @param contentType The image type.
+     * @param request The request carrying the image.
+     * @return No content, with the new photo URL as Location.
+     */
+    @PutMapping(value = "/{id}/photo", consumes = {"image/jpeg", "image/png", "image/webp", "image/gif"})
+    public ResponseEntity<?> putPhoto(@PathVariable Long id, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                      HttpServletRequest request) throws IOException {
+        long maxBytes = maxPhotoSize.toBytes();
+        byte[] content = request.getContentLengthLong() > maxBytes
+                ? null : request.getInputStream().readNBytes((int) maxBytes + 1);
+        if (content == null || content.length > maxBytes) {
+            ErrorResponse errorResponse = new ErrorResponse("Photos can be at most " + maxPhotoSize.toKilobytes() + " KB", "Photo too large");
+            return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        if (content.length == 0) {
+            ErrorResponse errorResponse = new ErrorResponse("The request body must be the image", "Empty photo");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        String tag = userPhotoService.store(id, MediaType.parseMediaType(contentType).toString(), content);
+        return ResponseEntity.noContent().location(URI.create(UserPhotoService.photoUrl(id, tag))).eTag(ETags.of(tag)).build();
+    }
+
+    /**
+     * Removes a user's photo.
+     *
+     * @param id The user ID.
+     * @return No content response if removed.
+     */
+    @DeleteMapping("/{id}/photo")
+    public ResponseEntity<Void> deletePhoto(@PathVariable Long id) {
+        if (!userPhotoService.delete(id)) {
+            throw new ResourceNotFoundException("No photo for user with id: " + id);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     // Convert UserModel to UserDTO
     private UserDTO convertToDTO(UserModel user) {
         UserDTO userDTO = new UserDTO();
@@ -120,7 +309,8 @@ public class UserController {
         userDTO.setUsername(user.getUsername());
         userDTO.setEmail(user.getEmail());
         userDTO.setName(user.getName());
-        userDTO.setPhoto(user.getPhoto());
+        userDTO.setPhoto(UserPhotoService.photoUrl(user.getId(), user.getPhotoTag()));
+        userDTO.setVersion(user.getVersion());
         return userDTO;
     }
 
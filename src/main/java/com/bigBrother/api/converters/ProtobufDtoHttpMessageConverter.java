@@ -0,0 +1,192 @@
+package com.bigBrother.api.converters;
+
+import com.bigBrother.api.dtos.CameraDTO;
+import com.bigBrother.api.dtos.UserDTO;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes cameras and users as Protocol Buffers following {@code static/proto/bigbrother.proto}.
+ * The encoding is done directly with {@link CodedOutputStream}, so no generated classes or intermediate objects are needed.
+ * Only used when the client asks for {@code application/x-protobuf}.
+ */
+public class ProtobufDtoHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int LIST_FIELD = 1;
+
+    // Field numbers by JSON name; camera and user share id, name and version, the rest never appear together
+    private static final Map<String, Integer> FIELD_NUMBERS = Map.ofEntries(
+            Map.entry("id", 1), Map.entry("name", 2),
+            Map.entry("device", 3), Map.entry("resolution", 4), Map.entry("fps", 5), Map.entry("postUrl", 6),
+            Map.entry("codec", 7), Map.entry("preset", 8), Map.entry("tune", 9), Map.entry("buffer", 10),
+            Map.entry("rotation", 11),
+            Map.entry("username", 3), Map.entry("email", 4), Map.entry("photo", 5),
+            Map.entry("version", 15));
+
+    public ProtobufDtoHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CameraDTO.class == clazz || UserDTO.class == clazz || Collection.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Only cameras, users and lists of them or of their sparse fieldset rows, so other lists get a 406 instead of
+     * failing halfway. Behind {@code ResponseEntity<?>} the element type is unknown; the camera and user lists are
+     * declared that way, and handlers returning anything else that way must declare what they produce.
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!supports(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        if (!Collection.class.isAssignableFrom(clazz) || type == null) {
+            return true;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element == null || element == CameraDTO.class || element == UserDTO.class || Map.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), 8192);
+        write(body, out);
+        out.flush();
+    }
+
+    /**
+     * Encodes a DTO, a partial (sparse fieldset) row, or a collection of them as the matching message.
+     */
+    public static void write(Object body, CodedOutputStream out) throws IOException {
+        if (body instanceof Collection<?> items) {
+            for (Object item : items) {
+                out.writeTag(LIST_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(messageSize(item));
+                writeMessage(item, out);
+            }
+        } else {
+            writeMessage(body, out);
+        }
+    }
+
+    private static int messageSize(Object item) {
+        if (item instanceof CameraDTO camera) {
+            return int64Size(1, camera.getId()) + stringSize(2, camera.getName()) + stringSize(3, camera.getDevice())
+                    + stringSize(4, camera.getResolution()) + stringSize(5, camera.getFps()) + stringSize(6, camera.getPostUrl())
+                    + stringSize(7, camera.getCodec()) + stringSize(8, camera.getPreset()) + stringSize(9, camera.getTune())
+                    + stringSize(10, camera.getBuffer()) + stringSize(11, camera.getRotation()) + int64Size(15, camera.getVersion());
+        }
+        if (item instanceof UserDTO user) {
+            return int64Size(1, user.getId()) + stringSize(2, user.getName()) + stringSize(3, user.getUsername())
+                    + stringSize(4, user.getEmail()) + stringSize(5, user.getPhoto()) + int64Size(15, user.getVersion());
+        }
+        if (item instanceof Map<?, ?> row) {
+            int size = 0;
+            for (Map.Entry<?, ?> entry : row.entrySet()) {
+                int field = fieldNumber(entry.getKey());
+                size += entry.getValue() instanceof Number number ? int64Size(field, number.longValue()) : stringSize(field, stringValue(entry.getValue()));
+            }
+            return size;
+        }
+        throw new HttpMessageNotWritableException("No protobuf mapping for " + item.getClass().getSimpleName());
+    }
+
+    private static void writeMessage(Object item, CodedOutputStream out) throws IOException {
+        if (item instanceof CameraDTO camera) {
+            writeInt64(out, 1, camera.getId());
+            writeString(out, 2, camera.getName());
+            writeString(out, 3, camera.getDevice());
+            writeString(out, 4, camera.getResolution());
+            writeString(out, 5, camera.getFps());
+            writeString(out, 6, camera.getPostUrl());
+            writeString(out, 7, camera.getCodec());
+            writeString(out, 8, camera.getPreset());
+            writeString(out, 9, camera.getTune());
+            writeString(out, 10, camera.getBuffer());
+            writeString(out, 11, camera.getRotation());
+            writeInt64(out, 15, camera.getVersion());
+        } else if (item instanceof UserDTO user) {
+            writeInt64(out, 1, user.getId());
+            writeString(out, 2, user.getName());
+            writeString(out, 3, user.getUsername());
+            writeString(out, 4, user.getEmail());
+            writeString(out, 5, user.getPhoto());
+            writeInt64(out, 15, user.getVersion());
+        } else if (item instanceof Map<?, ?> row) {
+            for (Map.Entry<?, ?> entry : row.entrySet()) {
+                int field = fieldNumber(entry.getKey());
+                if (entry.getValue() instanceof Number number) {
+                    writeInt64(out, field, number.longValue());
+                } else {
+                    writeString(out, field, stringValue(entry.getValue()));
+                }
+            }
+        } else {
+            throw new HttpMessageNotWritableException("No protobuf mapping for " + item.getClass().getSimpleName());
+        }
+    }
+
+    private static int fieldNumber(Object name) {
+        Integer field = FIELD_NUMBERS.get(String.valueOf(name));
+        if (field == null) {
+            throw new HttpMessageNotWritableException("No protobuf field for " + name);
+        }
+        return field;
+    }
+
+    private static String stringValue(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static int int64Size(int field, Long value) {
+        return value != null ? CodedOutputStream.computeInt64Size(field, value) : 0;
+    }
+
+    private static int stringSize(int field, String value) {
+        return value != null ? CodedOutputStream.computeStringSize(field, value) : 0;
+    }
+
+    private static void writeInt64(CodedOutputStream out, int field, Long value) throws IOException {
+        if (value != null) out.writeInt64(field, value);
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) out.writeString(field, value);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading protobuf is not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading protobuf is not supported", inputMessage);
+    }
+}
@@ -0,0 +1,80 @@
+package com.bigBrother.api.dtos;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class AuditEntryDTO {
+    private String replica;
+    private long seq;
+    private Instant timestamp;
+    private String actor;
+    private String entityType;
+    private long entityId;
+    private String operation;
+    private Map<String, String> changes;
+
+    // Getters y setters
+    public String getReplica() {
+        return replica;
+    }
+
+    public void setReplica(String replica) {
+        this.replica = replica;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(long entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Map<String, String> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(Map<String, String> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.bigBrother.api.dtos;
+
+import java.util.List;
+
+public class CameraChangesDTO {
+    private long seq;
+    private boolean resync;
+    private boolean hasMore;
+    private List<CameraDTO> upserts;
+    private List<Long> deletes;
+
+    // Getters y setters
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public boolean isResync() {
+        return resync;
+    }
+
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<CameraDTO> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<CameraDTO> upserts) {
+        this.upserts = upserts;
+    }
+
+    public List<Long> getDeletes() {
+        return deletes;
+    }
+
+    public void setDeletes(List<Long> deletes) {
+        this.deletes = deletes;
+    }
+}
@@ -12,6 +12,7 @@ public class CameraDTO {
     private String tune;
     private String buffer;
     private String rotation;
+    private Long version;
 
     // Getters y setters
     public Long getId() {
@@ -101,4 +102,12 @@ public class CameraDTO {
     public void setRotation(String rotation) {
         this.rotation = rotation;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bigBrother.api.dtos;
+
+public class CameraImportErrorDTO {
+    private String type;
+    private long line;
+    private String error;
+
+    // Getters y setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bigBrother.api.dtos;
+
+import java.util.List;
+
+public class RecorderAssignmentDTO {
+    private String node;
+    private double load;
+    private List<CameraDTO> cameras;
+    private long changeSeq;
+
+    // Getters y setters
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public void setLoad(double load) {
+        this.load = load;
+    }
+
+    public List<CameraDTO> getCameras() {
+        return cameras;
+    }
+
+    public void setCameras(List<CameraDTO> cameras) {
+        this.cameras = cameras;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+}
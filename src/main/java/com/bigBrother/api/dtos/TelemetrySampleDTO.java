@@ -0,0 +1,66 @@
+package com.bigBrother.api.dtos;
+
+/**
+ * One runtime sample reported by a recorder for a camera, typically once per second.
+ */
+public class TelemetrySampleDTO {
+    private Long cameraId;
+    // Epoch milliseconds, defaults to the time of receipt
+    private Long timestamp;
+    private double fps;
+    // Frames dropped since the previous sample
+    private long droppedFrames;
+    // Kilobits per second
+    private double bitrate;
+    // Encoder buffer fill, 0 to 1
+    private double bufferFill;
+
+    // Getters y setters
+    public Long getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(Long cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public double getFps() {
+        return fps;
+    }
+
+    public void setFps(double fps) {
+        this.fps = fps;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public void setDroppedFrames(long droppedFrames) {
+        this.droppedFrames = droppedFrames;
+    }
+
+    public double getBitrate() {
+        return bitrate;
+    }
+
+    public void setBitrate(double bitrate) {
+        this.bitrate = bitrate;
+    }
+
+    public double getBufferFill() {
+        return bufferFill;
+    }
+
+    public void setBufferFill(double bufferFill) {
+        this.bufferFill = bufferFill;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bigBrother.api.dtos;
+
+import java.util.List;
+
+/**
+ * Time series of telemetry windows for one camera, with the fps it is configured for.
+ */
+public class TelemetrySeriesDTO {
+    private Long cameraId;
+    private Double configuredFps;
+    private List<TelemetryWindowDTO> windows;
+
+    // Getters y setters
+    public Long getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(Long cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public Double getConfiguredFps() {
+        return configuredFps;
+    }
+
+    public void setConfiguredFps(Double configuredFps) {
+        this.configuredFps = configuredFps;
+    }
+
+    public List<TelemetryWindowDTO> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<TelemetryWindowDTO> windows) {
+        this.windows = windows;
+    }
+}
@@ -0,0 +1,127 @@
+package com.bigBrother.api.dtos;
+
+import java.time.Instant;
+
+/**
+ * Min/max/avg roll-up of the samples of one camera over one window.
+ */
+public class TelemetryWindowDTO {
+    private Instant windowStart;
+    private int windowSeconds;
+    private int samples;
+    private double fpsMin;
+    private double fpsMax;
+    private double fpsAvg;
+    private long droppedFrames;
+    private double bitrateMin;
+    private double bitrateMax;
+    private double bitrateAvg;
+    private double bufferFillMin;
+    private double bufferFillMax;
+    private double bufferFillAvg;
+
+    // Getters y setters
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Instant windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    public double getFpsMin() {
+        return fpsMin;
+    }
+
+    public void setFpsMin(double fpsMin) {
+        this.fpsMin = fpsMin;
+    }
+
+    public double getFpsMax() {
+        return fpsMax;
+    }
+
+    public void setFpsMax(double fpsMax) {
+        this.fpsMax = fpsMax;
+    }
+
+    public double getFpsAvg() {
+        return fpsAvg;
+    }
+
+    public void setFpsAvg(double fpsAvg) {
+        this.fpsAvg = fpsAvg;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public void setDroppedFrames(long droppedFrames) {
+        this.droppedFrames = droppedFrames;
+    }
+
+    public double getBitrateMin() {
+        return bitrateMin;
+    }
+
+    public void setBitrateMin(double bitrateMin) {
+        this.bitrateMin = bitrateMin;
+    }
+
+    public double getBitrateMax() {
+        return bitrateMax;
+    }
+
+    public void setBitrateMax(double bitrateMax) {
+        this.bitrateMax = bitrateMax;
+    }
+
+    public double getBitrateAvg() {
+        return bitrateAvg;
+    }
+
+    public void setBitrateAvg(double bitrateAvg) {
+        this.bitrateAvg = bitrateAvg;
+    }
+
+    public double getBufferFillMin() {
+        return bufferFillMin;
+    }
+
+    public void setBufferFillMin(double bufferFillMin) {
+        this.bufferFillMin = bufferFillMin;
+    }
+
+    public double getBufferFillMax() {
+        return bufferFillMax;
+    }
+
+    public void setBufferFillMax(double bufferFillMax) {
+        this.bufferFillMax = bufferFillMax;
+    }
+
+    public double getBufferFillAvg() {
+        return bufferFillAvg;
+    }
+
+    public void setBufferFillAvg(double bufferFillAvg) {
+        this.bufferFillAvg = bufferFillAvg;
+    }
+}
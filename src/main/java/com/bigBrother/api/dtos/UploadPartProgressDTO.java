@@ -0,0 +1,50 @@
+package com.bigBrother.api.dtos;
+
+public class UploadPartProgressDTO {
+    private int partNumber;
+    private long size;
+    private long sentBytes;
+    private String status;
+    private int attempts;
+
+    // Getters y setters
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    public void setPartNumber(int partNumber) {
+        this.partNumber = partNumber;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    public void setSentBytes(long sentBytes) {
+        this.sentBytes = sentBytes;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+}
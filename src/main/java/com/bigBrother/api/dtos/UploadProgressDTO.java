@@ -0,0 +1,98 @@
+package com.bigBrother.api.dtos;
+
+import java.time.Instant;
+import java.util.List;
+
+public class UploadProgressDTO {
+    private String id;
+    private String filename;
+    private String status;
+    private String error;
+    private long totalBytes;
+    private long sentBytes;
+    private int concurrency;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private List<UploadPartProgressDTO> parts;
+
+    // Getters y setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    public void setSentBytes(long sentBytes) {
+        this.sentBytes = sentBytes;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public List<UploadPartProgressDTO> getParts() {
+        return parts;
+    }
+
+    public void setParts(List<UploadPartProgressDTO> parts) {
+        this.parts = parts;
+    }
+}
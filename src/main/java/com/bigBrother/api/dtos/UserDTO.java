@@ -6,6 +6,7 @@ public class UserDTO {
     private String email;
     private String name;
     private String photo;
+    private Long version;
 
     // Getters y setters
     public Long getId() {
@@ -47,4 +48,12 @@ public class UserDTO {
     public void setPhoto(String photo) {
         this.photo = photo;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bigBrother.api.events;
+
+/**
+ * Something that holds derived state (typically a cache) and must drop it when cameras or users change,
+ * on this replica or on any other.
+ */
+public interface ChangeListener {
+
+    /**
+     * Called after a change committed, locally or on another replica.
+     */
+    void onChange(EntityChangedEvent event);
+
+    /**
+     * Called when change notifications may have been missed, e.g. after reconnecting. Drop everything.
+     */
+    void onResync();
+}
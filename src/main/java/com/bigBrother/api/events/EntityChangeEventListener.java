@@ -0,0 +1,102 @@
+package com.bigBrother.api.events;
+
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.models.UserModel;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns Hibernate insert/update/delete events on cameras and users into {@link EntityChangedEvent}s.
+ * Hibernate fires these inside the transaction, right after the SQL ran; consumers that must only
+ * see committed changes listen with {@code @TransactionalEventListener}.
+ */
+@Component
+public class EntityChangeEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Set<String> REDACTED = Set.of("hashedPassword");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeEventListener(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityType type = typeOf(event.getEntity());
+        if (type == null) return;
+        String[] names = event.getPersister().getPropertyNames();
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            put(changes, names[i], event.getState()[i]);
+        }
+        eventPublisher.publishEvent(new EntityChangedEvent(type, Operation.CREATE, (Long) event.getId(), changes));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityType type = typeOf(event.getEntity());
+        if (type == null) return;
+        String[] names = event.getPersister().getPropertyNames();
+        Map<String, Object> changes = new LinkedHashMap<>();
+        int[] dirty = event.getDirtyProperties();
+        if (dirty != null) {
+            for (int index : dirty) {
+                put(changes, names[index], event.getState()[index]);
+            }
+        }
+        eventPublisher.publishEvent(new EntityChangedEvent(type, Operation.UPDATE, (Long) event.getId(), changes));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityType type = typeOf(event.getEntity());
+        if (type == null) return;
+        eventPublisher.publishEvent(new EntityChangedEvent(type, Operation.DELETE, (Long) event.getId(), Map.of()));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static void put(Map<String, Object> changes, String name, Object value) {
+        changes.put(name, REDACTED.contains(name) ? "<redacted>" : value);
+    }
+
+    private static EntityType typeOf(Object entity) {
+        if (entity instanceof CameraModel) return EntityType.CAMERA;
+        if (entity instanceof UserModel) return EntityType.USER;
+        return null;
+    }
+}
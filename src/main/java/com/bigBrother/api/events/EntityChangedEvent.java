@@ -0,0 +1,22 @@
+package com.bigBrother.api.events;
+
+import java.util.Map;
+
+/**
+ * A committed (or about to be committed) change to a camera or a user.
+ *
+ * @param type The kind of entity.
+ * @param operation What happened to it.
+ * @param id The entity id.
+ * @param changes Changed fields and their new values, empty for deletes or when unknown. Secrets are redacted.
+ */
+public record EntityChangedEvent(EntityType type, Operation operation, Long id, Map<String, Object> changes) {
+
+    public enum EntityType {
+        CAMERA, USER
+    }
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE
+    }
+}
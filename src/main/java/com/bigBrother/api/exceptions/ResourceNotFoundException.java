@@ -1,7 +1,11 @@
 package com.bigBrother.api.exceptions;
 
+/**
+ * Turned into a 404 by the controllers. Thrown on every miss, so it skips the stack trace: filling it in
+ * costs more than the rest of a cached lookup, and a 404 never needs it.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,10 @@
+package com.bigBrother.api.exceptions;
+
+/**
+ * Turned into a 409 by the upload controller when an upload id is reused while its upload is still running.
+ */
+public class UploadInProgressException extends RuntimeException {
+    public UploadInProgressException(String message) {
+        super(message);
+    }
+}
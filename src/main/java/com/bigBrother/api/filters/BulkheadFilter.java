@@ -0,0 +1,112 @@
+package com.bigBrother.api.filters;
+
+import com.bigBrother.api.utils.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Runs ahead of authentication and gives each class of traffic its own share of the request threads:
+ * login and token calls, reads and writes each go through their own {@link Bulkhead}, and a class that is
+ * full gets 503 instead of queuing in front of the others. A request that goes async, such as the streamed
+ * exports and imports, keeps its permit until the async processing completes, so those transfers count against
+ * their class for as long as they run. Uploads are not limited here; they leave the
+ * request thread right away and are bounded by their own executor (see {@code UploadsController}).
+ * Actuator endpoints are never limited, so probes keep answering under load.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkhead auth;
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+    private final Map<Bulkhead, Counter> rejections;
+
+    public BulkheadFilter(Bulkhead auth, Bulkhead reads, Bulkhead writes, MeterRegistry meterRegistry) {
+        this.auth = auth;
+        this.reads = reads;
+        this.writes = writes;
+        this.rejections = Map.of(auth, rejectionCounter(auth, meterRegistry), reads, rejectionCounter(reads, meterRegistry),
+                writes, rejectionCounter(writes, meterRegistry));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = classify(request);
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejections.get(bulkhead).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(bulkhead));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    // Completion also follows a timeout or an error, so the permit is released exactly once
+    private record ReleaseOnComplete(Bulkhead bulkhead) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private Bulkhead classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+        boolean read = method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS");
+        if (uri.startsWith("/actuator/") || (uri.startsWith("/api/upload/") && !read)) {
+            return null;
+        }
+        if (uri.startsWith("/api/auth/")) {
+            return auth;
+        }
+        return read ? reads : writes;
+    }
+
+    private static Counter rejectionCounter(Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        return Counter.builder("api.bulkhead.rejected").tag("class", bulkhead.getName()).register(meterRegistry);
+    }
+}
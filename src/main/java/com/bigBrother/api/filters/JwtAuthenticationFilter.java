@@ -1,7 +1,11 @@
 package com.bigBrother.api.filters;
 
 import com.bigBrother.api.services.JwtService;
-import com.bigBrother.api.repositories.UserRepository;
+import com.bigBrother.api.services.TokenRevocationService;
+import com.bigBrother.api.services.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -24,7 +28,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtService jwtService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Value("${internal.api.token}")
     private String internalApiToken;
@@ -34,11 +41,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final Claims claims;
 
-        // Permitir autenticación por token interno para /api/cameras
+        // Permitir autenticación por token interno para /api/cameras, /api/telemetry y /api/recorders
         String path = request.getRequestURI();
-        if (path.startsWith("/api/cameras")) {
+        if (path.startsWith("/api/cameras") || path.startsWith("/api/telemetry") || path.startsWith("/api/recorders")) {
             if (authHeader != null && authHeader.equals("Bearer " + internalApiToken)) {
                 // Autenticación interna: crea un token de autenticación simple
                 UsernamePasswordAuthenticationToken authToken =
@@ -57,14 +64,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7); // Extrae el token después de "Bearer "
-        username = jwtService.extractUsername(jwt); // Extrae el username del token
+        try {
+            claims = jwtService.parseClaims(jwt); // Verifica firma y expiración una sola vez
+        } catch (ExpiredJwtException e) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has expired. Please log in again.");
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Token revocado (logout): comprobación en memoria, sin consultar la base de datos
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            chain.doFilter(request, response);
+            return;
+        }
 
         // Si el usuario no está autenticado, realiza la autenticación
+        String username = claims.getSubject();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userRepository.findByUsername(username)
+            // Usuario desde la caché; se invalida en todas las réplicas cuando cambia
+            UserDetails userDetails = userPrincipalCache.findByUsername(username)
                     .orElse(null);
 
-            if (userDetails != null && jwtService.validateToken(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled() && jwtService.validateClaims(claims, userDetails)) {
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,101 @@
+package com.bigBrother.api.filters;
+
+import com.bigBrother.api.services.RateLimitService;
+import com.bigBrother.api.services.RateLimitService.Policy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles requests right after {@link JwtAuthenticationFilter}, once the caller is known.
+ * Login and registration are limited per client IP, authenticated calls per user,
+ * the internal service token per calling host, and anonymous calls per IP.
+ * The client IP is {@code getRemoteAddr()}, which Tomcat takes from {@code X-Forwarded-For} when the request comes
+ * from one of {@code server.tomcat.remoteip.internal-proxies}; behind a load balancer outside those ranges every
+ * client would share the balancer's buckets, so its address must be listed there.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.auth.rate-per-second:0.2}")
+    private double authRate;
+
+    @Value("${ratelimit.auth.burst:5}")
+    private int authBurst;
+
+    @Value("${ratelimit.internal.rate-per-second:200}")
+    private double internalRate;
+
+    @Value("${ratelimit.internal.burst:400}")
+    private int internalBurst;
+
+    @Value("${ratelimit.default.rate-per-second:20}")
+    private double defaultRate;
+
+    @Value("${ratelimit.default.burst:40}")
+    private int defaultBurst;
+
+    private Policy authPolicy;
+    private Policy internalPolicy;
+    private Policy defaultPolicy;
+
+    @PostConstruct
+    public void init() {
+        authPolicy = new Policy("auth", authRate, authBurst);
+        internalPolicy = new Policy("internal", internalRate, internalBurst);
+        defaultPolicy = new Policy("default", defaultRate, defaultBurst);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Policy policy;
+        String key;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            policy = authPolicy;
+            key = request.getRemoteAddr();
+        } else if (authentication == null) {
+            policy = defaultPolicy;
+            key = "ip:" + request.getRemoteAddr();
+        } else if ("internal-service".equals(authentication.getName())) {
+            policy = internalPolicy;
+            key = request.getRemoteAddr();
+        } else {
+            policy = defaultPolicy;
+            key = "user:" + authentication.getName();
+        }
+
+        long waitNanos = rateLimitService.tryAcquire(policy, key);
+        if (waitNanos > 0) {
+            response.setStatus(TOO_MANY_REQUESTS);
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,63 @@
+package com.bigBrother.api.filters;
+
+import com.bigBrother.api.tracing.RequestTrace;
+import com.bigBrother.api.tracing.RequestTracer;
+import com.bigBrother.api.tracing.TraceContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Outermost filter: opens a trace for the request so the security chain, controllers,
+ * repositories, SQL and outbound calls below it are all attributed to the same request.
+ * Async requests are finished when they complete, so their time on the worker thread counts too.
+ */
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final RequestTracer requestTracer;
+
+    public RequestTraceFilter(RequestTracer requestTracer) {
+        this.requestTracer = requestTracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = requestTracer.start(request.getMethod(), request.getRequestURI());
+        request.setAttribute(TraceContext.REQUEST_ATTRIBUTE, trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Uploads and streamed bodies go on on a worker thread; the trace ends with the request, not this dispatch
+                requestTracer.suspend(trace);
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        requestTracer.finish(trace, response.getStatus());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                requestTracer.finish(trace, response.getStatus());
+            }
+        }
+    }
+}
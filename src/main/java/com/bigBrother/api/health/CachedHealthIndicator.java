@@ -0,0 +1,70 @@
+package com.bigBrother.api.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Health indicator that never checks anything when asked: a scheduled task runs the real check and
+ * {@link #health()} returns its last result, so a probe costs the same however often it comes and
+ * however slow the checked system is. A result older than the staleness threshold is reported DOWN,
+ * which is also what a check stuck on a dead dependency looks like from the outside.
+ */
+public abstract class CachedHealthIndicator implements HealthIndicator {
+
+    private record Result(Health health, long checkedAtNanos, Instant checkedAt, long durationMillis) {
+    }
+
+    private final Duration staleAfter;
+    private volatile Result last;
+
+    protected CachedHealthIndicator(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * The actual check; runs on the scheduler thread only.
+     *
+     * @throws Exception if the checked system is not usable, reported as DOWN with the exception.
+     */
+    protected abstract Health check() throws Exception;
+
+    /**
+     * Runs the check and caches its result. Call from a scheduled method of the subclass.
+     */
+    protected void refresh() {
+        long start = System.nanoTime();
+        Health health;
+        try {
+            health = check();
+        } catch (Exception e) {
+            health = Health.down(e).build();
+        }
+        long end = System.nanoTime();
+        last = new Result(health, end, Instant.now(), TimeUnit.NANOSECONDS.toMillis(end - start));
+    }
+
+    @Override
+    public Health health() {
+        Result result = last;
+        if (result == null) {
+            return Health.down().withDetail("error", "Not checked yet").build();
+        }
+        long ageMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - result.checkedAtNanos());
+        if (ageMillis > staleAfter.toMillis()) {
+            return Health.down()
+                    .withDetail("error", "Last check is older than " + staleAfter.toSeconds() + "s")
+                    .withDetail("lastStatus", result.health().getStatus().getCode())
+                    .withDetail("checkedAt", result.checkedAt())
+                    .build();
+        }
+        return Health.status(result.health().getStatus())
+                .withDetails(result.health().getDetails())
+                .withDetail("checkedAt", result.checkedAt())
+                .withDetail("checkMillis", result.durationMillis())
+                .build();
+    }
+}
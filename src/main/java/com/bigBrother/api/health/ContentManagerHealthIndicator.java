@@ -0,0 +1,49 @@
+package com.bigBrother.api.health;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Content-manager health, checked every {@code health.content-manager.interval-ms}. Any answer short of a
+ * server error counts as up: the check is about reaching it, not about a particular resource.
+ */
+@Component
+public class ContentManagerHealthIndicator extends CachedHealthIndicator {
+
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final Duration timeout;
+
+    public ContentManagerHealthIndicator(@Value("${content-manager.url:http://content-manager:8181}") String baseUrl,
+                                         @Value("${health.content-manager.timeout:2s}") Duration timeout,
+                                         @Value("${health.content-manager.stale-after:60s}") Duration staleAfter) {
+        super(staleAfter);
+        this.uri = URI.create(baseUrl + "/");
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${health.content-manager.interval-ms:10000}")
+    public void scheduledCheck() {
+        refresh();
+    }
+
+    @Override
+    protected Health check() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        Health.Builder health = response.statusCode() >= 500 ? Health.down() : Health.up();
+        return health.withDetail("url", uri.toString()).withDetail("status", response.statusCode()).build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.bigBrother.api.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Postgres health, checked every {@code health.db.interval-ms} with a {@code SELECT 1} bounded by
+ * {@code health.db.timeout}. Registered as {@code db} in place of Boot's indicator, which queries on every probe.
+ * Also reports the connection pool, whose waiting threads are the first sign of a database slowdown.
+ */
+@Component("dbHealthIndicator")
+public class DatabaseHealthIndicator extends CachedHealthIndicator {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseHealthIndicator(DataSource dataSource,
+                                   @Value("${health.db.timeout:2s}") Duration timeout,
+                                   @Value("${health.db.stale-after:30s}") Duration staleAfter) {
+        super(staleAfter);
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, timeout.toSeconds()));
+    }
+
+    @Scheduled(fixedDelayString = "${health.db.interval-ms:5000}")
+    public void scheduledCheck() {
+        refresh();
+    }
+
+    @Override
+    protected Health check() {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        Health.Builder health = Health.up().withDetail("database", "PostgreSQL");
+        if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            health.withDetail("activeConnections", pool.getActiveConnections())
+                    .withDetail("idleConnections", pool.getIdleConnections())
+                    .withDetail("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.bigBrother.api.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "camera_changes")
+public class CameraChangeModel {
+    // Change sequence; writers serialize on an advisory lock so sequence order is commit order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long cameraId;
+
+    // UPSERT or DELETE
+    @Column(nullable = false, length = 6)
+    private String operation;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    // Getters and setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(Long cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -21,6 +21,11 @@ public class CameraModel {
     private String buffer;
     private String rotation;
 
+    // Optimistic locking, bumped by every update; exposed as the ETag
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     // Getters y setters
     public Long getId() {
         return id;
@@ -109,4 +114,12 @@ public class CameraModel {
     public void setRotation(String rotation) {
         this.rotation = rotation;
     }
-}
\ No newline at end of file
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
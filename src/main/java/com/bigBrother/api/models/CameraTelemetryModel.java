@@ -0,0 +1,155 @@
+package com.bigBrother.api.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "camera_telemetry", indexes = {
+    @Index(name = "idx_camera_telemetry_camera_window", columnList = "cameraId, windowStart")
+})
+public class CameraTelemetryModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long cameraId;
+
+    @Column(nullable = false)
+    private Instant windowStart;
+
+    private int windowSeconds;
+    private int samples;
+    private double fpsMin;
+    private double fpsMax;
+    private double fpsAvg;
+    private long droppedFrames;
+    private double bitrateMin;
+    private double bitrateMax;
+    private double bitrateAvg;
+    private double bufferFillMin;
+    private double bufferFillMax;
+    private double bufferFillAvg;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCameraId() {
+        return cameraId;
+    }
+
+    public void setCameraId(Long cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Instant windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    public double getFpsMin() {
+        return fpsMin;
+    }
+
+    public void setFpsMin(double fpsMin) {
+        this.fpsMin = fpsMin;
+    }
+
+    public double getFpsMax() {
+        return fpsMax;
+    }
+
+    public void setFpsMax(double fpsMax) {
+        this.fpsMax = fpsMax;
+    }
+
+    public double getFpsAvg() {
+        return fpsAvg;
+    }
+
+    public void setFpsAvg(double fpsAvg) {
+        this.fpsAvg = fpsAvg;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public void setDroppedFrames(long droppedFrames) {
+        this.droppedFrames = droppedFrames;
+    }
+
+    public double getBitrateMin() {
+        return bitrateMin;
+    }
+
+    public void setBitrateMin(double bitrateMin) {
+        this.bitrateMin = bitrateMin;
+    }
+
+    public double getBitrateMax() {
+        return bitrateMax;
+    }
+
+    public void setBitrateMax(double bitrateMax) {
+        this.bitrateMax = bitrateMax;
+    }
+
+    public double getBitrateAvg() {
+        return bitrateAvg;
+    }
+
+    public void setBitrateAvg(double bitrateAvg) {
+        this.bitrateAvg = bitrateAvg;
+    }
+
+    public double getBufferFillMin() {
+        return bufferFillMin;
+    }
+
+    public void setBufferFillMin(double bufferFillMin) {
+        this.bufferFillMin = bufferFillMin;
+    }
+
+    public double getBufferFillMax() {
+        return bufferFillMax;
+    }
+
+    public void setBufferFillMax(double bufferFillMax) {
+        this.bufferFillMax = bufferFillMax;
+    }
+
+    public double getBufferFillAvg() {
+        return bufferFillAvg;
+    }
+
+    public void setBufferFillAvg(double bufferFillAvg) {
+        this.bufferFillAvg = bufferFillAvg;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bigBrother.api.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "recorder_nodes")
+public class RecorderNodeModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Stable identity chosen by the recorder, e.g. its hostname; also its place on the hash ring
+    @Column(unique = true, nullable = false, length = 100)
+    private String name;
+
+    @Column(length = 2048)
+    private String address;
+
+    // Relative encoding capacity, 1.0 for a standard host
+    @Column(nullable = false)
+    private double capacity;
+
+    @Column(nullable = false)
+    private Instant registeredAt;
+
+    @Column(nullable = false)
+    private Instant lastHeartbeat;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(double capacity) {
+        this.capacity = capacity;
+    }
+
+    public Instant getRegisteredAt() {
+        return registeredAt;
+    }
+
+    public void setRegisteredAt(Instant registeredAt) {
+        this.registeredAt = registeredAt;
+    }
+
+    public Instant getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    public void setLastHeartbeat(Instant lastHeartbeat) {
+        this.lastHeartbeat = lastHeartbeat;
+    }
+}
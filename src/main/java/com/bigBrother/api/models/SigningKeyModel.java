@@ -0,0 +1,81 @@
+package com.bigBrother.api.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "signing_keys")
+public class SigningKeyModel {
+    // Key id, published as "kid" in the JWT header and in the JWKS document
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    @Column(nullable = false, length = 16)
+    private String algorithm;
+
+    // X.509 encoded public key, Base64
+    @Column(nullable = false, columnDefinition = "text")
+    private String publicKey;
+
+    // PKCS#8 encoded private key, Base64
+    @Column(nullable = false, columnDefinition = "text")
+    private String privateKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Keys are published in the JWKS before they are used for signing so cached key sets already know them
+    @Column(nullable = false)
+    private Instant activatesAt;
+
+    // Getters and setters
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getActivatesAt() {
+        return activatesAt;
+    }
+
+    public void setActivatesAt(Instant activatesAt) {
+        this.activatesAt = activatesAt;
+    }
+}
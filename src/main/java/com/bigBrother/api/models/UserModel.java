@@ -24,7 +24,15 @@ public class UserModel implements UserDetails {
 
     private String name;
     private boolean disabled = true;
-    private String photo = "";
+
+    // Content hash of the photo, null without one; the photo itself lives in user_photos
+    @Column(length = 16)
+    private String photoTag;
+
+    // Optimistic locking, bumped by every update; exposed as the ETag
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 
     // Getters and setters
     public Long getId() {
@@ -75,12 +83,20 @@ public class UserModel implements UserDetails {
         this.disabled = disabled;
     }
 
-    public String getPhoto() {
-        return photo;
+    public String getPhotoTag() {
+        return photoTag;
+    }
+
+    public void setPhotoTag(String photoTag) {
+        this.photoTag = photoTag;
+    }
+
+    public long getVersion() {
+        return version;
     }
 
-    public void setPhoto(String photo) {
-        this.photo = photo;
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     @Override
@@ -112,4 +128,4 @@ public class UserModel implements UserDetails {
     public boolean isEnabled() {
         return !disabled;
     }
-}
\ No newline at end of file
+}
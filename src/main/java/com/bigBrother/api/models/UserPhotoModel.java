@@ -0,0 +1,79 @@
+package com.bigBrother.api.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Profile photo of a user, kept out of the users table so authentication never reads it.
+ * Either the image itself or, for photos migrated from a plain URL, that URL.
+ */
+@Entity
+@Table(name = "user_photos")
+public class UserPhotoModel {
+    @Id
+    private Long userId;
+
+    // Same value as UserModel.photoTag, part of the photo URL
+    @Column(nullable = false, length = 16)
+    private String tag;
+
+    private String contentType;
+
+    private byte[] content;
+
+    @Column(length = 2048)
+    private String externalUrl;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public void setTag(String tag) {
+        this.tag = tag;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public String getExternalUrl() {
+        return externalUrl;
+    }
+
+    public void setExternalUrl(String externalUrl) {
+        this.externalUrl = externalUrl;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.CameraChangeModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CameraChangeRepository extends JpaRepository<CameraChangeModel, Long> {
+
+    List<CameraChangeModel> findTop1000BySeqGreaterThanOrderBySeqAsc(Long seq);
+
+    @Query("select min(c.seq) from CameraChangeModel c")
+    Long findMinSeq();
+
+    @Query("select max(c.seq) from CameraChangeModel c")
+    Long findMaxSeq();
+
+    /**
+     * Drops changes older than the cutoff, always keeping the latest one so the current sequence stays known.
+     */
+    @Modifying
+    @Query("delete from CameraChangeModel c where c.changedAt < :cutoff "
+            + "and c.seq < (select max(l.seq) from CameraChangeModel l)")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
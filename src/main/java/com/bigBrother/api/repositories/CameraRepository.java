@@ -1,12 +1,34 @@
 package com.bigBrother.api.repositories;
 
 import com.bigBrother.api.models.CameraModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CameraRepository extends JpaRepository<CameraModel, Long> {
+public interface CameraRepository extends JpaRepository<CameraModel, Long>, CameraRepositoryCustom {
     Optional<CameraModel> findByNameIgnoreCase(String name);
-}
\ No newline at end of file
+
+    @Query("select c from CameraModel c where lower(c.name) in :names")
+    List<CameraModel> findByLowerNameIn(@Param("names") Collection<String> names);
+
+    /**
+     * All cameras in id order, fetched from a server-side cursor a few hundred rows at a time.
+     * Must be consumed inside a transaction and closed afterwards; detach the cameras once used.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from CameraModel c order by c.id")
+    Stream<CameraModel> streamAll();
+}
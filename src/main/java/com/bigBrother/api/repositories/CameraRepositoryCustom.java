@@ -0,0 +1,32 @@
+package com.bigBrother.api.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+public interface CameraRepositoryCustom {
+
+    Set<String> PROJECTABLE_FIELDS = Set.of(
+            "id", "name", "device", "resolution", "fps", "postUrl", "codec", "preset", "tune", "buffer", "rotation", "version");
+
+    Set<String> PATCHABLE_FIELDS = Set.of(
+            "name", "device", "resolution", "fps", "postUrl", "codec", "preset", "tune", "buffer", "rotation");
+
+    /**
+     * Loads only the requested fields (plus the id) of the given cameras, or of all cameras if ids is null.
+     *
+     * @throws IllegalArgumentException if a field is not projectable.
+     */
+    List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, Collection<String> fields);
+
+    /**
+     * Updates only the given fields of the camera with a single statement, without reading it first, and bumps its version.
+     *
+     * @param expectedVersion If not null, the update only applies while the camera is still at this version.
+     * @return The new version, or empty if no camera matched the id (and version).
+     * @throws IllegalArgumentException if a field is not patchable.
+     */
+    OptionalLong patch(Long id, Map<String, Object> changes, Long expectedVersion);
+}
@@ -0,0 +1,50 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.events.EntityChangedEvent;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+import com.bigBrother.api.models.CameraModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+class CameraRepositoryImpl implements CameraRepositoryCustom {
+
+    // Column by field, for the fields in PATCHABLE_FIELDS
+    private static final Map<String, String> COLUMNS = Map.ofEntries(
+            Map.entry("name", "name"), Map.entry("device", "device"), Map.entry("resolution", "resolution"),
+            Map.entry("fps", "fps"), Map.entry("postUrl", "post_url"), Map.entry("codec", "codec"), Map.entry("preset", "preset"),
+            Map.entry("tune", "tune"), Map.entry("buffer", "buffer"), Map.entry("rotation", "rotation"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, Collection<String> fields) {
+        return ProjectionQueries.findFields(entityManager, CameraModel.class, PROJECTABLE_FIELDS, ids, fields);
+    }
+
+    @Override
+    @Transactional
+    public OptionalLong patch(Long id, Map<String, Object> changes, Long expectedVersion) {
+        OptionalLong version = PatchQueries.patch(entityManager, CameraModel.class, "cameras", COLUMNS, id, changes, expectedVersion);
+        if (version.isPresent()) {
+            // Native updates bypass the Hibernate listeners, announce the change ourselves
+            Map<String, Object> changed = new LinkedHashMap<>(changes);
+            changed.put("version", version.getAsLong());
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.CAMERA, Operation.UPDATE, id, changed));
+        }
+        return version;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.CameraTelemetryModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CameraTelemetryRepository extends JpaRepository<CameraTelemetryModel, Long> {
+    List<CameraTelemetryModel> findByCameraIdAndWindowStartBetweenOrderByWindowStartAsc(Long cameraId, Instant from, Instant to);
+
+    @Modifying
+    @Query("delete from CameraTelemetryModel t where t.windowStart < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -0,0 +1,66 @@
+package com.bigBrother.api.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Builds partial updates that write only the changed columns and bump the version in one statement,
+ * without loading the row first.
+ */
+final class PatchQueries {
+
+    private PatchQueries() {
+    }
+
+    /**
+     * Runs {@code UPDATE table SET <changed columns>, version = version + 1 WHERE id = ? [AND version = ?] RETURNING version}.
+     * All patchable columns are text, so scalar values are bound as their string form.
+     *
+     * @param columns Column name by field name; only these fields can be patched.
+     * @param expectedVersion If not null, the row is only updated while it is still at this version.
+     * @return The new version, or empty if no row matched.
+     * @throws IllegalArgumentException if a field is not patchable or a value is not a scalar.
+     */
+    static OptionalLong patch(EntityManager entityManager, Class<?> entityClass, String table, Map<String, String> columns,
+                              Long id, Map<String, Object> changes, Long expectedVersion) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        List<Object> parameters = new ArrayList<>();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String column = columns.get(change.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Field cannot be patched: " + change.getKey());
+            }
+            Object value = change.getValue();
+            if (value == null) {
+                // Untyped null parameters are rejected by Postgres, write the literal instead
+                sql.append(column).append(" = NULL, ");
+            } else if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                sql.append(column).append(" = ?, ");
+                parameters.add(value.toString());
+            } else {
+                throw new IllegalArgumentException("Field " + change.getKey() + " must be a string");
+            }
+        }
+        sql.append("version = version + 1 WHERE id = ?");
+        parameters.add(id);
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+            parameters.add(expectedVersion);
+        }
+        sql.append(" RETURNING version");
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        // Only this entity's pending changes need flushing before the statement
+        query.addSynchronizedEntityClass(entityClass);
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        List<?> result = query.getResultList();
+        return result.isEmpty() ? OptionalLong.empty() : OptionalLong.of(((Number) result.get(0)).longValue());
+    }
+}
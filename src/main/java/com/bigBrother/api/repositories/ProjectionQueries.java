@@ -0,0 +1,61 @@
+package com.bigBrother.api.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds select-list projections so sparse fieldset reads only fetch the requested columns.
+ */
+final class ProjectionQueries {
+
+    private ProjectionQueries() {
+    }
+
+    /**
+     * Selects the given attributes, always including the id, optionally restricted to a set of ids.
+     *
+     * @throws IllegalArgumentException if a field is not one of the allowed attributes.
+     */
+    static List<Map<String, Object>> findFields(EntityManager entityManager, Class<?> entityClass, Set<String> allowedFields,
+                                                Collection<Long> ids, Collection<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            if (!allowedFields.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            selected.add(field);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+        query.multiselect(selected.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+        if (ids != null) {
+            query.where(root.get("id").in(ids));
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : selected) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
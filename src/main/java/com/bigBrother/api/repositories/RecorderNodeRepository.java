@@ -0,0 +1,34 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.RecorderNodeModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RecorderNodeRepository extends JpaRepository<RecorderNodeModel, Long> {
+
+    Optional<RecorderNodeModel> findByName(String name);
+
+    /**
+     * Records a heartbeat with a single UPDATE, without reading the node first. The time is the database's,
+     * like the one liveness is judged by, so replicas with skewed clocks agree on which nodes are alive.
+     *
+     * @return 0 if no node has this name.
+     */
+    @Modifying
+    @Query("update RecorderNodeModel n set n.lastHeartbeat = current_instant where n.name = :name")
+    int touch(@Param("name") String name);
+
+    @Query("select current_instant")
+    Instant databaseTime();
+
+    @Modifying
+    @Query("delete from RecorderNodeModel n where n.name = :name")
+    int deleteByName(@Param("name") String name);
+}
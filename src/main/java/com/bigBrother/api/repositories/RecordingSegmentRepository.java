@@ -0,0 +1,27 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.RecordingSegmentModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RecordingSegmentRepository extends JpaRepository<RecordingSegmentModel, Long> {
+
+    /**
+     * Segments overlapping [from, to). The lower bound on startTime keeps this a bounded index range scan;
+     * it is exact because no segment is longer than maxDuration.
+     */
+    @Query("select s from RecordingSegmentModel s where s.cameraId = :cameraId "
+            + "and s.startTime >= :lowerBound and s.startTime < :to and s.endTime > :from order by s.startTime")
+    List<RecordingSegmentModel> findOverlapping(@Param("cameraId") Long cameraId,
+                                                @Param("lowerBound") Instant lowerBound,
+                                                @Param("from") Instant from,
+                                                @Param("to") Instant to);
+
+    List<RecordingSegmentModel> findTop1000ByIdGreaterThanAndEndTimeAfterOrderByIdAsc(Long id, Instant endTime);
+}
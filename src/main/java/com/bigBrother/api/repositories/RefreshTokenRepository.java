@@ -0,0 +1,33 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.RefreshTokenModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenModel, Long> {
+    Optional<RefreshTokenModel> findByTokenHash(String tokenHash);
+
+    // Conditional update so two concurrent refreshes with the same token cannot both succeed
+    @Modifying
+    @Query("update RefreshTokenModel t set t.revoked = true where t.id = :id and t.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshTokenModel t set t.revoked = true where t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("update RefreshTokenModel t set t.revoked = true where t.username = :username")
+    int revokeAllForUser(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshTokenModel t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,22 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.RevokedTokenModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenModel, Long> {
+    List<RevokedTokenModel> findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(Long id, Instant now);
+
+    boolean existsByJti(String jti);
+
+    @Modifying
+    @Query("delete from RevokedTokenModel t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
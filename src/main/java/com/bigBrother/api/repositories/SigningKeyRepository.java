@@ -0,0 +1,12 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.SigningKeyModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKeyModel, String> {
+    List<SigningKeyModel> findAllByOrderByActivatesAtAsc();
+}
@@ -0,0 +1,24 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.models.UserPhotoModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserPhotoRepository extends JpaRepository<UserPhotoModel, Long> {
+
+    /**
+     * Tag of the current photo without reading the image, to answer conditional requests.
+     */
+    @Query("select p.tag from UserPhotoModel p where p.userId = :userId")
+    Optional<String> findTagByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from UserPhotoModel p where p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<UserModel, Long> {
+public interface UserRepository extends JpaRepository<UserModel, Long>, UserRepositoryCustom {
     Optional<UserModel> findByUsername(String username);
     Optional<UserModel> findByEmail(String email);
 }
\ No newline at end of file
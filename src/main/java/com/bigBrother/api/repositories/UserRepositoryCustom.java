@@ -0,0 +1,32 @@
+package com.bigBrother.api.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+public interface UserRepositoryCustom {
+
+    // Credentials and account state are never projectable
+    Set<String> PROJECTABLE_FIELDS = Set.of("id", "username", "email", "name", "photoTag", "version");
+
+    // The photo has its own endpoint
+    Set<String> PATCHABLE_FIELDS = Set.of("username", "email", "name");
+
+    /**
+     * Loads only the requested fields (plus the id) of the given users, or of all users if ids is null.
+     *
+     * @throws IllegalArgumentException if a field is not projectable.
+     */
+    List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, Collection<String> fields);
+
+    /**
+     * Updates only the given fields of the user with a single statement, without reading it first, and bumps its version.
+     *
+     * @param expectedVersion If not null, the update only applies while the user is still at this version.
+     * @return The new version, or empty if no user matched the id (and version).
+     * @throws IllegalArgumentException if a field is not patchable.
+     */
+    OptionalLong patch(Long id, Map<String, Object> changes, Long expectedVersion);
+}
@@ -0,0 +1,48 @@
+package com.bigBrother.api.repositories;
+
+import com.bigBrother.api.events.EntityChangedEvent;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+import com.bigBrother.api.models.UserModel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    // Column by field, for the fields in PATCHABLE_FIELDS
+    private static final Map<String, String> COLUMNS = Map.ofEntries(
+            Map.entry("username", "username"), Map.entry("email", "email"), Map.entry("name", "name"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIds(Collection<Long> ids, Collection<String> fields) {
+        return ProjectionQueries.findFields(entityManager, UserModel.class, PROJECTABLE_FIELDS, ids, fields);
+    }
+
+    @Override
+    @Transactional
+    public OptionalLong patch(Long id, Map<String, Object> changes, Long expectedVersion) {
+        OptionalLong version = PatchQueries.patch(entityManager, UserModel.class, "users", COLUMNS, id, changes, expectedVersion);
+        if (version.isPresent()) {
+            // Native updates bypass the Hibernate listeners, announce the change ourselves
+            Map<String, Object> changed = new LinkedHashMap<>(changes);
+            changed.put("version", version.getAsLong());
+            eventPublisher.publishEvent(new EntityChangedEvent(EntityType.USER, Operation.UPDATE, id, changed));
+        }
+        return version;
+    }
+}
@@ -0,0 +1,176 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.events.ChangeListener;
+import com.bigBrother.api.events.EntityChangedEvent;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.repositories.CameraRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Camera configuration, by id and as the full list the recorders poll, together with the change sequence it reflects.
+ * Entries are dropped as soon as a camera changes on any replica (see {@link ChangeNotificationService});
+ * the TTL only bounds staleness if a notification is ever lost. Cached models are shared, never modify them.
+ * Ids that do not exist are remembered too, up to {@code cache.cameras.negative-max-entries}, so recorders still
+ * polling deleted cameras get their 404 without a query; an id is forgotten as soon as a camera with it is created.
+ */
+@Service
+public class CameraCache implements ChangeListener {
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+    /**
+     * All cameras, and the change sequence read just before them: every change after it is in the change log.
+     */
+    public record Snapshot(List<CameraModel> cameras, long changeSeq) {
+    }
+
+    private final CameraRepository cameraRepository;
+    private final CameraChangeService cameraChangeService;
+
+    private final Map<Long, Entry<CameraModel>> byId = new ConcurrentHashMap<>();
+    // Missing ids and when they were found missing
+    private final Map<Long, Long> missing = new ConcurrentHashMap<>();
+    private volatile Entry<Snapshot> all;
+    // Bumped on every invalidation so a load that raced with one does not cache what it read
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong lastMissingPurge = new AtomicLong(System.nanoTime());
+
+    @Value("${cache.cameras.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${cache.cameras.negative-ttl:1m}")
+    private Duration negativeTtl;
+
+    @Value("${cache.cameras.negative-max-entries:10000}")
+    private int negativeMaxEntries;
+
+    public CameraCache(CameraRepository cameraRepository, CameraChangeService cameraChangeService) {
+        this.cameraRepository = cameraRepository;
+        this.cameraChangeService = cameraChangeService;
+    }
+
+    public Optional<CameraModel> findById(Long id) {
+        long now = System.nanoTime();
+        Entry<CameraModel> entry = byId.get(id);
+        if (entry != null && now - entry.loadedAt() < ttl.toNanos()) {
+            return Optional.of(entry.value());
+        }
+        Long missingSince = missing.get(id);
+        if (missingSince != null && now - missingSince < negativeTtl.toNanos()) {
+            return Optional.empty();
+        }
+        long loadedGeneration = generation.get();
+        Optional<CameraModel> camera = cameraRepository.findById(id);
+        if (camera.isPresent()) {
+            Entry<CameraModel> loaded = new Entry<>(camera.get(), now);
+            byId.put(id, loaded);
+            if (generation.get() != loadedGeneration) {
+                byId.remove(id, loaded);
+            }
+        } else {
+            rememberMissing(id, now, loadedGeneration);
+        }
+        return camera;
+    }
+
+    public List<CameraModel> findAll() {
+        return snapshot().cameras();
+    }
+
+    public Snapshot snapshot() {
+        long now = System.nanoTime();
+        Entry<Snapshot> entry = all;
+        if (entry != null && now - entry.loadedAt() < ttl.toNanos()) {
+            return entry.value();
+        }
+        long loadedGeneration = generation.get();
+        long changeSeq = cameraChangeService.currentSeq();
+        Snapshot snapshot = new Snapshot(List.copyOf(cameraRepository.findAll()), changeSeq);
+        Entry<Snapshot> loaded = new Entry<>(snapshot, now);
+        all = loaded;
+        if (generation.get() != loadedGeneration && all == loaded) {
+            all = null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Loads the full list and fills the by-id entries from it, so the first lookups after startup hit the cache.
+     *
+     * @return The number of cameras loaded.
+     */
+    public int preload() {
+        long loadedGeneration = generation.get();
+        List<CameraModel> cameras = snapshot().cameras();
+        long now = System.nanoTime();
+        for (CameraModel camera : cameras) {
+            Entry<CameraModel> loaded = new Entry<>(camera, now);
+            byId.putIfAbsent(camera.getId(), loaded);
+            if (generation.get() != loadedGeneration) {
+                byId.remove(camera.getId(), loaded);
+            }
+        }
+        return cameras.size();
+    }
+
+    @Override
+    public void onChange(EntityChangedEvent event) {
+        if (event.type() != EntityType.CAMERA) return;
+        generation.incrementAndGet();
+        byId.remove(event.id());
+        missing.remove(event.id());
+        all = null;
+    }
+
+    @Override
+    public void onResync() {
+        generation.incrementAndGet();
+        byId.clear();
+        missing.clear();
+        all = null;
+    }
+
+    /**
+     * Drops missing ids whose negative TTL has passed, so they do not take the room of live ones.
+     */
+    @Scheduled(fixedDelayString = "${cache.cameras.negative-purge-interval-ms:60000}")
+    public void purgeMissing() {
+        long now = System.nanoTime();
+        lastMissingPurge.set(now);
+        missing.values().removeIf(since -> now - since >= negativeTtl.toNanos());
+    }
+
+    private void rememberMissing(Long id, long now, long loadedGeneration) {
+        if (missing.size() >= negativeMaxEntries) {
+            // Expired entries go first, purged at most once a second so a full map of live entries stays cheap
+            long lastPurge = lastMissingPurge.get();
+            if (now - lastPurge >= TimeUnit.SECONDS.toNanos(1) && lastMissingPurge.compareAndSet(lastPurge, now)) {
+                missing.values().removeIf(since -> now - since >= negativeTtl.toNanos());
+            }
+            // Still full of live entries: drop an arbitrary one; a flood of distinct ids only ever costs queries, never memory
+            if (missing.size() >= negativeMaxEntries) {
+                var any = missing.keySet().iterator();
+                if (any.hasNext()) {
+                    missing.remove(any.next());
+                }
+            }
+        }
+        missing.put(id, now);
+        // A camera created with this id while we were reading must not be hidden
+        if (generation.get() != loadedGeneration) {
+            missing.remove(id, now);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.events.EntityChangedEvent;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+import com.bigBrother.api.models.CameraChangeModel;
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.repositories.CameraChangeRepository;
+import com.bigBrother.api.repositories.CameraRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Change log of the camera configuration, so recorders can sync only what changed since their last sync.
+ * Every camera create/update/delete appends a row in the same transaction as the change. Writers serialize on
+ * a transaction-level advisory lock, so sequence numbers become visible in order and a reader never skips a
+ * change that commits later with a lower number.
+ */
+@Service
+public class CameraChangeService {
+
+    public record Changes(long seq, boolean resync, boolean hasMore, List<CameraModel> upserts, List<Long> deletes) {
+    }
+
+    private static final long ADVISORY_LOCK_KEY = 0x63616d6368L; // "camch"
+    private static final int PAGE_SIZE = 1000;
+
+    private final CameraChangeRepository cameraChangeRepository;
+    private final CameraRepository cameraRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${cameras.changes.serialize-writes:true}")
+    private boolean serializeWrites;
+
+    @Value("${cameras.changes.retention:30d}")
+    private Duration retention;
+
+    public CameraChangeService(CameraChangeRepository cameraChangeRepository, CameraRepository cameraRepository, JdbcTemplate jdbcTemplate) {
+        this.cameraChangeRepository = cameraChangeRepository;
+        this.cameraRepository = cameraRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs synchronously inside the transaction making the change, while Hibernate flushes it.
+     * Plain JDBC on the transaction's connection, since the persistence context cannot be touched mid-flush.
+     */
+    @EventListener
+    public void onChange(EntityChangedEvent event) {
+        if (event.type() != EntityType.CAMERA) return;
+        if (serializeWrites) {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> { }, ADVISORY_LOCK_KEY);
+        }
+        jdbcTemplate.update("INSERT INTO camera_changes (camera_id, operation, changed_at) VALUES (?, ?, ?)",
+                event.id(), event.operation() == Operation.DELETE ? "DELETE" : "UPSERT", Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Latest change sequence, 0 if there never was a change.
+     */
+    public long currentSeq() {
+        Long seq = cameraChangeRepository.findMaxSeq();
+        return seq != null ? seq : 0;
+    }
+
+    /**
+     * Net changes after {@code since}, at most a page of them; each camera appears once, with its current state.
+     * Asks for a resync when changes after {@code since} have been purged or {@code since} is from another database.
+     */
+    public Changes changesSince(long since) {
+        Long min = cameraChangeRepository.findMinSeq();
+        long max = currentSeq();
+        if (since > max || (min != null && since < min - 1)) {
+            return new Changes(max, true, false, List.of(), List.of());
+        }
+
+        List<CameraChangeModel> page = cameraChangeRepository.findTop1000BySeqGreaterThanOrderBySeqAsc(since);
+        if (page.isEmpty()) {
+            return new Changes(since, false, false, List.of(), List.of());
+        }
+        // Last operation per camera wins
+        Map<Long, String> latest = new LinkedHashMap<>();
+        for (CameraChangeModel change : page) {
+            latest.remove(change.getCameraId());
+            latest.put(change.getCameraId(), change.getOperation());
+        }
+        List<Long> upsertIds = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        latest.forEach((cameraId, operation) -> (operation.equals("DELETE") ? deletes : upsertIds).add(cameraId));
+
+        List<CameraModel> upserts = cameraRepository.findAllById(upsertIds);
+        if (upserts.size() < upsertIds.size()) {
+            // Deleted after this page; the tombstone is in a later page, but say so right away
+            Set<Long> found = upserts.stream().map(CameraModel::getId).collect(Collectors.toSet());
+            upsertIds.stream().filter(id -> !found.contains(id)).forEach(deletes::add);
+        }
+        long seq = page.get(page.size() - 1).getSeq();
+        return new Changes(seq, false, page.size() == PAGE_SIZE, upserts, deletes);
+    }
+
+    @Scheduled(fixedDelayString = "${cameras.changes.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        cameraChangeRepository.deleteOlderThan(Instant.now().minus(retention));
+    }
+}
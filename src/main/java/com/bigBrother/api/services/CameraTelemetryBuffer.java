@@ -0,0 +1,151 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.TelemetrySampleDTO;
+import com.bigBrother.api.dtos.TelemetryWindowDTO;
+
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free ring buffer of the raw samples of one camera.
+ * Writers claim a slot with a single atomic increment and publish it with a per-slot sequence (seqlock),
+ * so concurrent readers either see a complete sample or skip it. Old samples are overwritten.
+ */
+class CameraTelemetryBuffer {
+
+    private static final long WRITING = -1;
+
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final double[] fps;
+    private final long[] dropped;
+    private final double[] bitrate;
+    private final double[] bufferFill;
+
+    // Only touched by the roll-up thread
+    private long rolledUpTo = 0;
+    private volatile long lastWrite = System.currentTimeMillis();
+
+    CameraTelemetryBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, WRITING);
+        this.timestamps = new long[size];
+        this.fps = new double[size];
+        this.dropped = new long[size];
+        this.bitrate = new double[size];
+        this.bufferFill = new double[size];
+    }
+
+    void add(long timestamp, TelemetrySampleDTO sample) {
+        long seq = cursor.getAndIncrement();
+        int slot = (int) (seq & mask);
+        sequences.set(slot, WRITING);
+        VarHandle.storeStoreFence();
+        timestamps[slot] = timestamp;
+        fps[slot] = sample.getFps();
+        dropped[slot] = sample.getDroppedFrames();
+        bitrate[slot] = sample.getBitrate();
+        bufferFill[slot] = sample.getBufferFill();
+        sequences.set(slot, seq);
+        lastWrite = timestamp;
+    }
+
+    long getLastWrite() {
+        return lastWrite;
+    }
+
+    /**
+     * Aggregates every sample written since the previous roll-up. Called from a single thread.
+     * Stops at the first slot that was claimed but is not published yet; that sample and the ones after it
+     * go into the next window instead of being skipped. A slot already overwritten by a later lap is skipped.
+     *
+     * @return The window, or null if no samples arrived.
+     */
+    TelemetryWindowDTO rollUp(Instant windowStart, int windowSeconds) {
+        long end = cursor.get();
+        long start = Math.max(rolledUpTo, end - (mask + 1));
+
+        int count = 0;
+        long droppedSum = 0;
+        double fpsMin = Double.MAX_VALUE, fpsMax = -Double.MAX_VALUE, fpsSum = 0;
+        double bitrateMin = Double.MAX_VALUE, bitrateMax = -Double.MAX_VALUE, bitrateSum = 0;
+        double fillMin = Double.MAX_VALUE, fillMax = -Double.MAX_VALUE, fillSum = 0;
+        long seq = start;
+        for (; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            long published = sequences.get(slot);
+            if (published != seq) {
+                if (published > seq || cursor.get() - seq > mask + 1) continue;
+                break;
+            }
+            double f = fps[slot];
+            long d = dropped[slot];
+            double b = bitrate[slot];
+            double fill = bufferFill[slot];
+            VarHandle.loadLoadFence();
+            // Changed while reading: only a later lap writes to a published slot
+            if (sequences.get(slot) != seq) continue;
+
+            count++;
+            droppedSum += d;
+            fpsMin = Math.min(fpsMin, f);
+            fpsMax = Math.max(fpsMax, f);
+            fpsSum += f;
+            bitrateMin = Math.min(bitrateMin, b);
+            bitrateMax = Math.max(bitrateMax, b);
+            bitrateSum += b;
+            fillMin = Math.min(fillMin, fill);
+            fillMax = Math.max(fillMax, fill);
+            fillSum += fill;
+        }
+        rolledUpTo = seq;
+        if (count == 0) return null;
+
+        TelemetryWindowDTO window = new TelemetryWindowDTO();
+        window.setWindowStart(windowStart);
+        window.setWindowSeconds(windowSeconds);
+        window.setSamples(count);
+        window.setFpsMin(fpsMin);
+        window.setFpsMax(fpsMax);
+        window.setFpsAvg(fpsSum / count);
+        window.setDroppedFrames(droppedSum);
+        window.setBitrateMin(bitrateMin);
+        window.setBitrateMax(bitrateMax);
+        window.setBitrateAvg(bitrateSum / count);
+        window.setBufferFillMin(fillMin);
+        window.setBufferFillMax(fillMax);
+        window.setBufferFillAvg(fillSum / count);
+        return window;
+    }
+
+    /**
+     * Returns up to {@code limit} of the most recent raw samples, oldest first.
+     */
+    List<TelemetrySampleDTO> latest(long cameraId, int limit) {
+        long end = cursor.get();
+        long start = Math.max(0, end - Math.min(limit, mask + 1));
+        List<TelemetrySampleDTO> samples = new ArrayList<>();
+        for (long seq = start; seq < end; seq++) {
+            int slot = (int) (seq & mask);
+            if (sequences.get(slot) != seq) continue;
+            TelemetrySampleDTO sample = new TelemetrySampleDTO();
+            sample.setCameraId(cameraId);
+            sample.setTimestamp(timestamps[slot]);
+            sample.setFps(fps[slot]);
+            sample.setDroppedFrames(dropped[slot]);
+            sample.setBitrate(bitrate[slot]);
+            sample.setBufferFill(bufferFill[slot]);
+            VarHandle.loadLoadFence();
+            if (sequences.get(slot) == seq) samples.add(sample);
+        }
+        return samples;
+    }
+}
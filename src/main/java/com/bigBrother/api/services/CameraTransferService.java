@@ -0,0 +1,315 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.CameraDTO;
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.repositories.CameraRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk export and import of the camera fleet as newline-delimited JSON, one camera per line.
+ * Neither side holds the fleet in memory: the export walks a database cursor and detaches each camera once
+ * written, the import reads one line at a time and commits every {@code cameras.import.batch-size} lines.
+ */
+@Service
+public class CameraTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(CameraTransferService.class);
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+
+    /**
+     * Running totals of an import. {@code unchanged} counts lines matching a camera that already had those values.
+     */
+    public record ImportCounts(long lines, long created, long updated, long unchanged, long failed) {
+    }
+
+    /**
+     * Gets told about an import as it goes.
+     */
+    public interface ImportListener {
+        void onError(long line, String message);
+
+        void onProgress(ImportCounts counts);
+    }
+
+    private record ImportLine(long number, CameraDTO camera) {
+    }
+
+    private enum Outcome { CREATED, UPDATED, UNCHANGED }
+
+    private final CameraRepository cameraRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader lineReader;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cameras.import.batch-size:500}")
+    private int batchSize;
+
+    public CameraTransferService(CameraRepository cameraRepository, PlatformTransactionManager transactionManager,
+                                 JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.cameraRepository = cameraRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        // A misspelled field would otherwise be silently dropped and the camera imported without it
+        this.lineReader = objectMapper.readerFor(CameraDTO.class).with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * The import looks cameras up by lower-cased name a batch at a time; without this index every batch
+     * scans the whole table. Hibernate's schema update cannot declare expression indexes, hence plain SQL.
+     * Databases without expression indexes, like the in-memory one of the load tests, just go without.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createNameIndex() {
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS cameras_lower_name_idx ON cameras (lower(name))");
+        } catch (DataAccessException e) {
+            log.warn("Could not create the camera name index, imports will scan the cameras table: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hands every camera to the sink in id order, reading them from a cursor so memory stays flat
+     * whatever the size of the fleet.
+     *
+     * @return The number of cameras exported.
+     */
+    @Transactional(readOnly = true)
+    public long export(Consumer<CameraModel> sink) {
+        long count = 0;
+        try (Stream<CameraModel> cameras = cameraRepository.streamAll()) {
+            for (CameraModel camera : (Iterable<CameraModel>) cameras::iterator) {
+                sink.accept(camera);
+                entityManager.detach(camera);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates or updates a camera per line, matched by name ignoring case. An update replaces every field
+     * with the line's value, so importing an export restores the cameras exactly; ids and versions in the
+     * lines are ignored. Invalid lines are reported and skipped, the rest are committed batch by batch.
+     * Progress is reported after every committed batch.
+     *
+     * @return The final counts.
+     */
+    public ImportCounts importCameras(InputStream in, ImportListener listener) throws IOException {
+        long[] counts = new long[Outcome.values().length];
+        long failed = 0;
+        long number = 0;
+        List<ImportLine> batch = new ArrayList<>(batchSize);
+        LineReader lines = new LineReader(in);
+        byte[] line;
+        while ((line = lines.next()) != null) {
+            number++;
+            if (lines.truncated()) {
+                listener.onError(number, "Line longer than " + MAX_LINE_BYTES + " bytes");
+                failed++;
+                continue;
+            }
+            if (isBlank(line, lines.length())) continue;
+            String error;
+            try {
+                CameraDTO camera = lineReader.readValue(line, 0, lines.length());
+                error = validate(camera);
+                if (error == null) {
+                    batch.add(new ImportLine(number, camera));
+                }
+            } catch (JsonProcessingException e) {
+                error = "Invalid JSON: " + e.getOriginalMessage();
+            }
+            if (error != null) {
+                listener.onError(number, error);
+                failed++;
+            }
+            if (batch.size() >= batchSize) {
+                failed += commit(batch, counts, listener);
+                listener.onProgress(counts(number, counts, failed));
+            }
+        }
+        failed += commit(batch, counts, listener);
+        ImportCounts result = counts(number, counts, failed);
+        log.info("Imported cameras: {}", result);
+        return result;
+    }
+
+    // Commits the batch in one transaction; if that fails, line by line to find the culprits. Returns the failures.
+    private int commit(List<ImportLine> batch, long[] counts, ImportListener listener) {
+        if (batch.isEmpty()) return 0;
+        int failed = 0;
+        try {
+            List<Outcome> outcomes = transactionTemplate.execute(status -> apply(batch));
+            outcomes.forEach(outcome -> counts[outcome.ordinal()]++);
+        } catch (DataAccessException | TransactionException e) {
+            for (ImportLine line : batch) {
+                try {
+                    List<Outcome> outcomes = transactionTemplate.execute(status -> apply(List.of(line)));
+                    counts[outcomes.get(0).ordinal()]++;
+                } catch (DataAccessException | TransactionException lineError) {
+                    listener.onError(line.number(), "Could not save camera '" + line.camera().getName() + "': "
+                            + lineError.getMostSpecificCause().getMessage());
+                    failed++;
+                }
+            }
+        }
+        batch.clear();
+        return failed;
+    }
+
+    private List<Outcome> apply(List<ImportLine> lines) {
+        List<String> names = lines.stream().map(line -> key(line.camera().getName())).distinct().toList();
+        Map<String, CameraModel> byName = new HashMap<>();
+        for (CameraModel camera : cameraRepository.findByLowerNameIn(names)) {
+            byName.put(key(camera.getName()), camera);
+        }
+        List<Outcome> outcomes = new ArrayList<>(lines.size());
+        for (ImportLine line : lines) {
+            CameraDTO values = line.camera();
+            CameraModel camera = byName.get(key(values.getName()));
+            if (camera == null) {
+                camera = new CameraModel();
+                copy(values, camera);
+                // Later lines with the same name update this one
+                byName.put(key(values.getName()), cameraRepository.save(camera));
+                outcomes.add(Outcome.CREATED);
+            } else if (copy(values, camera)) {
+                outcomes.add(Outcome.UPDATED);
+            } else {
+                outcomes.add(Outcome.UNCHANGED);
+            }
+        }
+        cameraRepository.flush();
+        // With open-in-view the persistence context outlives the transaction and would collect every batch
+        entityManager.clear();
+        return outcomes;
+    }
+
+    // Returns whether anything changed
+    private static boolean copy(CameraDTO from, CameraModel to) {
+        boolean changed = false;
+        if (!Objects.equals(to.getName(), from.getName())) { to.setName(from.getName()); changed = true; }
+        if (!Objects.equals(to.getDevice(), from.getDevice())) { to.setDevice(from.getDevice()); changed = true; }
+        if (!Objects.equals(to.getResolution(), from.getResolution())) { to.setResolution(from.getResolution()); changed = true; }
+        if (!Objects.equals(to.getFps(), from.getFps())) { to.setFps(from.getFps()); changed = true; }
+        if (!Objects.equals(to.getPostUrl(), from.getPostUrl())) { to.setPostUrl(from.getPostUrl()); changed = true; }
+        if (!Objects.equals(to.getCodec(), from.getCodec())) { to.setCodec(from.getCodec()); changed = true; }
+        if (!Objects.equals(to.getPreset(), from.getPreset())) { to.setPreset(from.getPreset()); changed = true; }
+        if (!Objects.equals(to.getTune(), from.getTune())) { to.setTune(from.getTune()); changed = true; }
+        if (!Objects.equals(to.getBuffer(), from.getBuffer())) { to.setBuffer(from.getBuffer()); changed = true; }
+        if (!Objects.equals(to.getRotation(), from.getRotation())) { to.setRotation(from.getRotation()); changed = true; }
+        return changed;
+    }
+
+    private static String validate(CameraDTO camera) {
+        if (camera == null) {
+            return "Expected a camera object";
+        }
+        if (camera.getName() == null || camera.getName().trim().isEmpty()) {
+            return "Camera name is required";
+        }
+        camera.setName(camera.getName().trim());
+        return null;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static ImportCounts counts(long lines, long[] counts, long failed) {
+        return new ImportCounts(lines, counts[Outcome.CREATED.ordinal()], counts[Outcome.UPDATED.ordinal()],
+                counts[Outcome.UNCHANGED.ordinal()], failed);
+    }
+
+    private static boolean isBlank(byte[] line, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(line[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Splits a stream into lines in one reused buffer. Lines over {@link #MAX_LINE_BYTES} are skipped to
+     * their end and flagged as truncated, so one runaway line cannot take the heap with it.
+     */
+    private static final class LineReader {
+        private final InputStream in;
+        private final byte[] chunk = new byte[8192];
+        private final byte[] line = new byte[MAX_LINE_BYTES];
+        private int chunkPosition;
+        private int chunkLimit;
+        private int length;
+        private boolean truncated;
+
+        LineReader(InputStream in) {
+            this.in = in;
+        }
+
+        // The next line without its terminator, valid up to length(); null at the end of the stream
+        byte[] next() throws IOException {
+            length = 0;
+            truncated = false;
+            boolean any = false;
+            while (true) {
+                if (chunkPosition == chunkLimit) {
+                    chunkLimit = in.read(chunk);
+                    chunkPosition = 0;
+                    if (chunkLimit <= 0) {
+                        chunkLimit = 0;
+                        return any ? line : null;
+                    }
+                }
+                any = true;
+                byte b = chunk[chunkPosition++];
+                if (b == '\n') {
+                    if (length > 0 && line[length - 1] == '\r') length--;
+                    return line;
+                }
+                if (length < MAX_LINE_BYTES) {
+                    line[length++] = b;
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        int length() {
+            return length;
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+    }
+}
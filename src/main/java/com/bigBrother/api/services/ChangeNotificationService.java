@@ -0,0 +1,252 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.events.ChangeListener;
+import com.bigBrother.api.events.EntityChangedEvent;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change-notification bus between API replicas over Postgres LISTEN/NOTIFY.
+ * Committed camera and user changes invalidate the local caches immediately and are then broadcast with
+ * {@code pg_notify} from a background thread, so the request never waits for it. Every replica keeps one
+ * dedicated connection listening on the channel; after that connection drops, notifications may have been
+ * missed, so every cache is cleared once it is listening again.
+ */
+@Service
+public class ChangeNotificationService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeNotificationService.class);
+
+    static final String CHANNEL = "bigbrother_changes";
+
+    private static final String RESYNC = "RESYNC";
+    private static final int MAX_OUTBOX = 10_000;
+    private static final int MAX_BATCH = 500;
+
+    // Identifies this replica in payloads so it can skip its own notifications
+    private final String origin = UUID.randomUUID().toString();
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ChangeListener> listeners;
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>(MAX_OUTBOX);
+    private final AtomicInteger connected = new AtomicInteger();
+    private final Counter sent;
+    private final Counter received;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.reconnect-delay-ms:2000}")
+    private long reconnectDelayMs;
+
+    @Value("${cache.invalidation.keepalive-ms:30000}")
+    private long keepaliveMs;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private volatile boolean running;
+    private volatile boolean overflowed;
+    private Thread listenerThread;
+    private Thread notifierThread;
+
+    public ChangeNotificationService(DataSource dataSource, ObjectProvider<ChangeListener> listeners, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.listeners = listeners;
+        this.sent = Counter.builder("cache.invalidation.notifications").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.notifications").tag("direction", "received").register(meterRegistry);
+        meterRegistry.gauge("cache.invalidation.connected", connected);
+    }
+
+    /**
+     * Runs once the change is committed, or straight away when it happened outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(EntityChangedEvent event) {
+        dispatch(event);
+        if (running && !outbox.offer(encode(event))) {
+            // Other replicas cannot be told precisely any more, have them drop everything instead
+            overflowed = true;
+        }
+    }
+
+    /**
+     * Whether the listening connection is currently up.
+     */
+    public boolean isConnected() {
+        return connected.get() == 1;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Cross-replica cache invalidation disabled, caches are only invalidated locally");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "change-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        notifierThread = new Thread(this::notifyLoop, "change-notifier");
+        notifierThread.setDaemon(true);
+        notifierThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) listenerThread.interrupt();
+        if (notifierThread != null) notifierThread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected.set(1);
+                // Anything may have changed while nobody was listening
+                resync();
+                long lastActivity = System.nanoTime();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) Math.min(keepaliveMs, 1000));
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                        lastActivity = System.nanoTime();
+                    } else if (System.nanoTime() - lastActivity > TimeUnit.MILLISECONDS.toNanos(keepaliveMs)) {
+                        // A silently dropped connection only shows up when something is sent over it
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        lastActivity = System.nanoTime();
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) log.warn("Change listener connection lost, reconnecting: {}", e.getMessage());
+            } finally {
+                connected.set(0);
+            }
+            sleep(reconnectDelayMs);
+        }
+    }
+
+    private void notifyLoop() {
+        List<String> pending = new ArrayList<>();
+        while (running) {
+            try {
+                if (pending.isEmpty()) {
+                    pending.add(outbox.take());
+                }
+                outbox.drainTo(pending, MAX_BATCH - pending.size());
+                if (overflowed) {
+                    overflowed = false;
+                    outbox.clear();
+                    pending.clear();
+                    pending.add(origin + '|' + RESYNC);
+                }
+                send(pending);
+                sent.increment(pending.size());
+                pending.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (SQLException e) {
+                log.warn("Could not publish {} change notifications, retrying: {}", pending.size(), e.getMessage());
+                if (pending.size() >= MAX_BATCH) overflowed = true;
+                sleep(reconnectDelayMs);
+            }
+        }
+    }
+
+    private void send(List<String> payloads) throws SQLException {
+        // One round trip for the whole batch
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, p) FROM unnest(?) AS p")) {
+            statement.setString(1, CHANNEL);
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            statement.execute();
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length < 2 || parts[0].equals(origin)) return;
+        received.increment();
+        if (parts[1].equals(RESYNC)) {
+            resync();
+            return;
+        }
+        try {
+            dispatch(new EntityChangedEvent(EntityType.valueOf(parts[1]), Operation.valueOf(parts[2]), Long.valueOf(parts[3]), Map.of()));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed change notification '{}'", payload);
+        }
+    }
+
+    private void dispatch(EntityChangedEvent event) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                log.warn("Change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private void resync() {
+        listeners.orderedStream().forEach(ChangeListener::onResync);
+    }
+
+    private String encode(EntityChangedEvent event) {
+        return origin + '|' + event.type() + '|' + event.operation() + '|' + event.id();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
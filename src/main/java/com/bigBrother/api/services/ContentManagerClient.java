@@ -0,0 +1,304 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.tracing.RequestTracer;
+import com.bigBrother.api.utils.AdaptiveConcurrencyLimit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.util.UriUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams files to content-manager.
+ * Small files go in a single PUT. When parallel uploads are enabled, files above the threshold are split into parts
+ * sent over several connections with content-manager's part protocol:
+ * <ul>
+ *     <li>{@code POST /uploads/{folder}/{name}?uploads} starts an upload and returns its id as the body</li>
+ *     <li>{@code PUT /uploads/{folder}/{name}?uploadId=&partNumber=} stores one part and returns its ETag</li>
+ *     <li>{@code POST /uploads/{folder}/{name}?uploadId=} with {@code [{"partNumber":1,"etag":"..."}]} assembles the file</li>
+ *     <li>{@code DELETE /uploads/{folder}/{name}?uploadId=} discards the parts</li>
+ * </ul>
+ * Each part reads its own byte range from the source, so nothing is buffered in memory. The number of parts in
+ * flight follows the measured throughput (see {@link AdaptiveConcurrencyLimit}); failed parts are retried.
+ */
+@Service
+public class ContentManagerClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentManagerClient.class);
+
+    private final UploadProgressRegistry progressRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${content-manager.url:http://content-manager:8181}")
+    private String baseUrl;
+
+    @Value("${upload.parallel.enabled:false}")
+    private boolean parallelEnabled;
+
+    @Value("${upload.parallel.threshold:256MB}")
+    private DataSize parallelThreshold;
+
+    @Value("${upload.parallel.part-size:16MB}")
+    private DataSize partSize;
+
+    @Value("${upload.parallel.min-connections:2}")
+    private int minConnections;
+
+    @Value("${upload.parallel.initial-connections:4}")
+    private int initialConnections;
+
+    @Value("${upload.parallel.max-connections:8}")
+    private int maxConnections;
+
+    @Value("${upload.parallel.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${upload.parallel.threads:32}")
+    private int threads;
+
+    private HttpClient httpClient;
+    private ExecutorService partExecutor;
+
+    public ContentManagerClient(UploadProgressRegistry progressRegistry, ObjectMapper objectMapper) {
+        this.progressRegistry = progressRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        partExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "upload-part-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdownNow();
+    }
+
+    /**
+     * Stores a file in content-manager under {@code folder/filename}.
+     *
+     * @param source The content; it is opened once per part, so it must be re-readable (e.g. a multipart file).
+     * @param owner User the progress is reported to.
+     * @param uploadId Id under which progress is reported.
+     * @throws IOException if content-manager cannot be reached or rejects the upload.
+     * @throws com.bigBrother.api.exceptions.UploadInProgressException if the owner has an unfinished upload with this id.
+     */
+    public void upload(String folder, String filename, String contentType, long size, InputStreamSource source,
+                       String owner, String uploadId) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        boolean parallel = parallelEnabled && size >= parallelThreshold.toBytes();
+        UploadProgress progress = progressRegistry.start(owner, uploadId, filename, size, parallel ? partSize.toBytes() : size);
+        try {
+            if (parallel) {
+                uploadParts(folder, filename, contentType, size, source, progress);
+            } else {
+                progress.partStarted(1);
+                HttpRequest request = HttpRequest.newBuilder(uri(folder, filename, Map.of()))
+                        .header("Content-Type", contentType)
+                        .PUT(rangePublisher(source, 0, size, progress, 1))
+                        .build();
+                send(request);
+                progress.partDone(1);
+            }
+            progress.finish(null);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            progress.finish(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            RequestTracer.recordOutboundCall(System.nanoTime() - start);
+        }
+    }
+
+    private void uploadParts(String folder, String filename, String contentType, long size, InputStreamSource source,
+                             UploadProgress progress) throws IOException, InterruptedException {
+        HttpRequest initiate = HttpRequest.newBuilder(uri(folder, filename, Map.of("uploads", "")))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        String multipartId = send(initiate).trim();
+
+        long partBytes = partSize.toBytes();
+        int partCount = progress.getPartCount();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(minConnections, initialConnections, maxConnections, System.nanoTime());
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<String>> etags = new ArrayList<>(partCount);
+        try {
+            for (int partNumber = 1; partNumber <= partCount && !failed.get(); partNumber++) {
+                limit.acquire();
+                progress.setConcurrency(limit.getLimit());
+                int part = partNumber;
+                long offset = (part - 1) * partBytes;
+                long length = Math.min(partBytes, size - offset);
+                etags.add(partExecutor.submit(() -> {
+                    boolean success = false;
+                    try {
+                        String etag = uploadPart(folder, filename, multipartId, part, source, offset, length, progress, limit);
+                        success = true;
+                        return etag;
+                    } catch (IOException | InterruptedException | RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        limit.release(length, System.nanoTime(), success);
+                    }
+                }));
+            }
+
+            List<Map<String, Object>> parts = new ArrayList<>(partCount);
+            for (int i = 0; i < etags.size(); i++) {
+                parts.add(Map.of("partNumber", i + 1, "etag", etags.get(i).get()));
+            }
+            HttpRequest complete = HttpRequest.newBuilder(uri(folder, filename, Map.of("uploadId", multipartId)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(parts)))
+                    .build();
+            send(complete);
+        } catch (ExecutionException e) {
+            abort(folder, filename, multipartId, etags);
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            abort(folder, filename, multipartId, etags);
+            throw e;
+        }
+    }
+
+    private String uploadPart(String folder, String filename, String multipartId, int partNumber, InputStreamSource source,
+                              long offset, long length, UploadProgress progress, AdaptiveConcurrencyLimit limit)
+            throws IOException, InterruptedException {
+        URI uri = uri(folder, filename, Map.of("uploadId", multipartId, "partNumber", String.valueOf(partNumber)));
+        for (int attempt = 1; ; attempt++) {
+            progress.partStarted(partNumber);
+            try {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .PUT(rangePublisher(source, offset, length, progress, partNumber))
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException("content-manager returned " + response.statusCode() + " for part " + partNumber);
+                }
+                progress.partDone(partNumber);
+                return response.headers().firstValue("ETag").orElse(response.body().trim());
+            } catch (IOException | UncheckedIOException e) {
+                progress.partFailed(partNumber);
+                if (attempt >= maxAttempts) {
+                    throw e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+                }
+                log.debug("Part {} of {} failed (attempt {}), retrying: {}", partNumber, filename, attempt, e.getMessage());
+                limit.backOff();
+                Thread.sleep(200L * attempt);
+            }
+        }
+    }
+
+    private void abort(String folder, String filename, String multipartId, List<Future<String>> parts) {
+        parts.forEach(part -> part.cancel(true));
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri(folder, filename, Map.of("uploadId", multipartId))).DELETE().build();
+            httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException | InterruptedException e) {
+            log.warn("Could not abort upload {} of {}: {}", multipartId, filename, e.getMessage());
+        }
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("content-manager returned " + response.statusCode() + " for " + request.method() + " " + request.uri().getPath());
+        }
+        return response.body();
+    }
+
+    private URI uri(String folder, String filename, Map<String, String> query) {
+        StringBuilder uri = new StringBuilder(baseUrl).append("/uploads/")
+                .append(UriUtils.encodePathSegment(folder, StandardCharsets.UTF_8)).append('/')
+                .append(UriUtils.encodePathSegment(filename, StandardCharsets.UTF_8));
+        char separator = '?';
+        for (Map.Entry<String, String> parameter : query.entrySet()) {
+            uri.append(separator).append(parameter.getKey());
+            if (!parameter.getValue().isEmpty()) {
+                uri.append('=').append(UriUtils.encodeQueryParam(parameter.getValue(), StandardCharsets.UTF_8));
+            }
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+
+    // Fixed-length body reading [offset, offset + length) of the source, counting progress as it goes
+    private static HttpRequest.BodyPublisher rangePublisher(InputStreamSource source, long offset, long length,
+                                                            UploadProgress progress, int partNumber) {
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                InputStream in = source.getInputStream();
+                in.skipNBytes(offset);
+                return new RangeInputStream(in, length, progress, partNumber);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }), length);
+    }
+
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private final UploadProgress progress;
+        private final int partNumber;
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length, UploadProgress progress, int partNumber) {
+            super(in);
+            this.remaining = length;
+            this.progress = progress;
+            this.partNumber = partNumber;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+                progress.addBytes(partNumber, read);
+            }
+            return read;
+        }
+    }
+}
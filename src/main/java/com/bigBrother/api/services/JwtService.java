@@ -1,62 +1,103 @@
 package com.bigBrother.api.services;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 
 import org.springframework.beans.factory.annotation.Value;
 import javax.annotation.PostConstruct;
-import java.util.Base64;
 
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String secret;
+    @Value("${jwt.access-token-ttl:15m}")
+    private Duration accessTokenTtl;
 
-    private Key SECRET_KEY;
+    private final SigningKeyService signingKeyService;
+
+    private JwtParser parser;
+
+    public JwtService(SigningKeyService signingKeyService) {
+        this.signingKeyService = signingKeyService;
+    }
 
     @PostConstruct
     public void init() {
-        byte[] keyBytes = Base64.getDecoder().decode(secret);
-        SECRET_KEY = Keys.hmacShaKeyFor(keyBytes);
+        // The parser is thread-safe, build it once and resolve the verification key from the "kid" header
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Tokens from before the RS256 keys (HS256, no kid) or crafted ones are plain invalid tokens
+                        if (!SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+                            throw new UnsupportedJwtException("Unsupported signature algorithm: " + header.getAlgorithm());
+                        }
+                        if (header.getKeyId() == null) {
+                            throw new UnsupportedJwtException("Token has no key id");
+                        }
+                        Key key = signingKeyService.publicKey(header.getKeyId());
+                        if (key == null) {
+                            // Unknown or retired key; jjwt would fail on a null key with an IllegalArgumentException
+                            throw new UnsupportedJwtException("Unknown key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
     }
 
+    /**
+     * Issues a short-lived access token signed with the current RS256 key.
+     * Each token carries a unique id (jti) so it can be revoked, and the key id so other services can verify it from the JWKS.
+     *
+     * @param username The token subject.
+     * @return The signed JWT.
+     */
     public String generateToken(String username) {
+        SigningKeyService.SigningKey key = signingKeyService.currentSigningKey();
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtl.toMillis()))
+                .signWith(key.privateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    /**
+     * Verifies the signature and expiry and returns the claims.
+     * Callers that need several claims should parse once with this instead of calling the extractors repeatedly.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-    
-    private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
-    }
-}
\ No newline at end of file
+        return validateClaims(parseClaims(token), userDetails);
+    }
+
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+}
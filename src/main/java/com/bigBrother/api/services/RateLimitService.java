@@ -0,0 +1,121 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.utils.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client key, spread over independent stripes so eviction sweeps and
+ * resizes never contend across the whole key space. Full buckets are evicted on a schedule
+ * and the number of live buckets is capped. At the cap the buckets are swept for idle ones on demand
+ * (at most once a second); if that frees nothing the client is let through unlimited and counted
+ * in {@code api.ratelimit.overflow}. Sharing one bucket between strangers would instead let anyone who can
+ * spray source addresses lock every new client out.
+ */
+@Service
+public class RateLimitService {
+
+    private static final int STRIPES = 16;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, TokenBucket>[] stripes;
+    private final AtomicInteger bucketCount = new AtomicInteger();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final Map<String, Counter> overflows = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ratelimit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @SuppressWarnings("unchecked")
+    public RateLimitService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        meterRegistry.gauge("api.ratelimit.buckets", bucketCount);
+    }
+
+    /**
+     * Takes a token for the key under the given policy.
+     *
+     * @return 0 if allowed, otherwise the nanoseconds until the next token.
+     */
+    public long tryAcquire(Policy policy, String key) {
+        String bucketKey = policy.name() + ':' + key;
+        Map<String, TokenBucket> stripe = stripes[bucketKey.hashCode() & (STRIPES - 1)];
+        long now = System.nanoTime();
+        TokenBucket bucket = stripe.get(bucketKey);
+        if (bucket == null) {
+            if (bucketCount.get() >= maxBuckets && !sweep(now)) {
+                overflows.computeIfAbsent(policy.name(),
+                        name -> Counter.builder("api.ratelimit.overflow").tag("policy", name).register(meterRegistry))
+                        .increment();
+                return 0;
+            }
+            bucket = stripe.computeIfAbsent(bucketKey, k -> {
+                bucketCount.incrementAndGet();
+                return new TokenBucket();
+            });
+        }
+        long wait = bucket.tryAcquire(now, policy.emissionIntervalNanos(), policy.burst());
+        if (wait > 0) {
+            rejections.computeIfAbsent(policy.name(),
+                    name -> Counter.builder("api.ratelimit.rejected").tag("policy", name).register(meterRegistry))
+                    .increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Drops buckets that have refilled, they hold no state worth keeping.
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Map<String, TokenBucket> stripe : stripes) {
+            evictIdle(stripe, now);
+        }
+    }
+
+    // Evicts idle buckets once the cap is reached, at most once a second; true if there is room now
+    private boolean sweep(long now) {
+        long last = lastSweep.get();
+        if ((last == 0 || now - last >= SWEEP_INTERVAL_NANOS) && lastSweep.compareAndSet(last, now)) {
+            for (Map<String, TokenBucket> stripe : stripes) {
+                evictIdle(stripe, now);
+            }
+        }
+        return bucketCount.get() < maxBuckets;
+    }
+
+    private void evictIdle(Map<String, TokenBucket> stripe, long now) {
+        stripe.entrySet().removeIf(entry -> {
+            if (entry.getValue().isFull(now)) {
+                bucketCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * A named limit: sustained requests per second and the burst allowed on top.
+     */
+    public record Policy(String name, double ratePerSecond, int burst) {
+        long emissionIntervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.exceptions.ResourceNotFoundException;
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.models.RecorderNodeModel;
+import com.bigBrother.api.repositories.RecorderNodeRepository;
+import com.bigBrother.api.utils.BoundedLoadHashRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registry of recorder nodes and the assignment of cameras to them. Recorders register with a capacity and
+ * send heartbeats; a node that misses them for {@code recorders.heartbeat-timeout} is left out. Cameras are
+ * spread over the live nodes by {@link BoundedLoadHashRing}, weighted by their estimated encode cost, so a node
+ * joining or leaving moves only about its share of the cameras. The assignment is a pure function of the live
+ * nodes and the camera list, so every replica computes the same one without coordinating.
+ * <p>
+ * Heartbeats and liveness use the database clock, so replicas agree on the live nodes whatever their own clocks
+ * say. They still refresh at different moments and from camera snapshots of different ages, so for a few seconds
+ * after a change two replicas can hand out different plans, and a camera can be assigned to two recorders or to
+ * none. Each assignment carries the camera change sequence its plan was computed from; a recorder that gets one
+ * older than a sequence it has already seen should keep what it records and poll again.
+ */
+@Service
+public class RecorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecorderService.class);
+    private static final double REFERENCE_PIXELS = 1920 * 1080;
+    private static final double REFERENCE_FPS = 30;
+    // Relative x264 encode cost per preset, medium = 1
+    private static final Map<String, Double> PRESET_COST = Map.of(
+            "ultrafast", 0.35, "superfast", 0.45, "veryfast", 0.55, "faster", 0.7, "fast", 0.85,
+            "medium", 1.0, "slow", 1.5, "slower", 2.5, "veryslow", 5.0, "placebo", 10.0);
+
+    /**
+     * Cameras per node as computed from a set of live nodes and a camera snapshot.
+     *
+     * @param capacities Capacity per live node name.
+     */
+    private record Plan(Map<String, Double> capacities, CameraCache.Snapshot snapshot,
+                        Map<String, List<CameraModel>> cameras, Map<String, Double> loads) {
+    }
+
+    /**
+     * A node's cameras and their total encode cost, in units of a 1080p30 camera on the medium preset.
+     *
+     * @param tag Changes whenever the cameras or any of their versions change, for conditional polling.
+     * @param changeSeq Camera change sequence the plan was computed from.
+     */
+    public record Assignment(List<CameraModel> cameras, double load, String tag, long changeSeq) {
+    }
+
+    private final RecorderNodeRepository recorderNodeRepository;
+    private final CameraCache cameraCache;
+
+    @Value("${recorders.heartbeat-timeout:30s}")
+    private Duration heartbeatTimeout;
+
+    @Value("${recorders.vnodes-per-capacity:100}")
+    private int vnodesPerCapacity;
+
+    @Value("${recorders.load-factor:1.25}")
+    private double loadFactor;
+
+    private volatile Plan plan;
+
+    public RecorderService(RecorderNodeRepository recorderNodeRepository, CameraCache cameraCache) {
+        this.recorderNodeRepository = recorderNodeRepository;
+        this.cameraCache = cameraCache;
+    }
+
+    /**
+     * Registers a node, or updates its address and capacity if it is already known, and counts as a heartbeat.
+     */
+    public RecorderNodeModel register(String name, String address, double capacity) {
+        Instant now = recorderNodeRepository.databaseTime();
+        RecorderNodeModel node = recorderNodeRepository.findByName(name).orElseGet(() -> {
+            RecorderNodeModel created = new RecorderNodeModel();
+            created.setName(name);
+            created.setRegisteredAt(now);
+            return created;
+        });
+        node.setAddress(address);
+        node.setCapacity(capacity);
+        node.setLastHeartbeat(now);
+        RecorderNodeModel saved = recorderNodeRepository.save(node);
+        refresh();
+        return saved;
+    }
+
+    /**
+     * @return false if the node is not registered, it must register again.
+     */
+    @Transactional
+    public boolean heartbeat(String name) {
+        return recorderNodeRepository.touch(name) > 0;
+    }
+
+    /**
+     * Removes a node right away, instead of waiting for its heartbeats to time out.
+     *
+     * @return false if the node was not registered.
+     */
+    @Transactional
+    public boolean deregister(String name) {
+        if (recorderNodeRepository.deleteByName(name) == 0) {
+            return false;
+        }
+        refresh();
+        return true;
+    }
+
+    public List<RecorderNodeModel> findAll() {
+        return recorderNodeRepository.findAll();
+    }
+
+    /**
+     * Whether the node is in the current plan, i.e. was alive at the last refresh.
+     */
+    public boolean isAlive(RecorderNodeModel node) {
+        return currentPlan().capacities().containsKey(node.getName());
+    }
+
+    /**
+     * The cameras a node should record; none while it is not alive.
+     *
+     * @throws ResourceNotFoundException if no node has this name.
+     */
+    public Assignment assignmentOf(String name) {
+        if (!currentPlan().cameras().containsKey(name) && recorderNodeRepository.findByName(name).isEmpty()) {
+            throw new ResourceNotFoundException("Recorder not found with name: " + name);
+        }
+        return currentAssignment(name);
+    }
+
+    /**
+     * Like {@link #assignmentOf} for a node known to exist, without checking the database.
+     */
+    public Assignment currentAssignment(String name) {
+        Plan current = currentPlan();
+        List<CameraModel> cameras = current.cameras().getOrDefault(name, List.of());
+        return new Assignment(cameras, current.loads().getOrDefault(name, 0.0), tagOf(cameras), current.snapshot().changeSeq());
+    }
+
+    /**
+     * Recomputes the assignment if the live nodes or the cameras changed since the last time.
+     * Runs on a schedule so nodes that stop sending heartbeats drop out, and right after a node registers or leaves.
+     */
+    @Scheduled(fixedDelayString = "${recorders.rebalance-interval-ms:5000}")
+    public synchronized void refresh() {
+        Instant cutoff = recorderNodeRepository.databaseTime().minus(heartbeatTimeout);
+        Map<String, Double> capacities = new TreeMap<>();
+        for (RecorderNodeModel node : recorderNodeRepository.findAll()) {
+            if (node.getLastHeartbeat().isAfter(cutoff)) {
+                capacities.put(node.getName(), node.getCapacity());
+            }
+        }
+        CameraCache.Snapshot snapshot = cameraCache.snapshot();
+        Plan current = plan;
+        if (current != null && current.snapshot() == snapshot && current.capacities().equals(capacities)) {
+            return;
+        }
+
+        List<BoundedLoadHashRing.Node> nodes = new ArrayList<>(capacities.size());
+        capacities.forEach((name, capacity) -> nodes.add(new BoundedLoadHashRing.Node(name, capacity)));
+        List<BoundedLoadHashRing.Item> items = new ArrayList<>(snapshot.cameras().size());
+        for (CameraModel camera : snapshot.cameras()) {
+            items.add(new BoundedLoadHashRing.Item(camera.getId(), encodeCost(camera)));
+        }
+        BoundedLoadHashRing.Assignment assignment = new BoundedLoadHashRing(nodes, vnodesPerCapacity, loadFactor).assign(items);
+
+        Map<String, List<CameraModel>> cameras = new HashMap<>();
+        capacities.keySet().forEach(name -> cameras.put(name, new ArrayList<>()));
+        for (CameraModel camera : snapshot.cameras()) {
+            String owner = assignment.owners().get(camera.getId());
+            if (owner != null) {
+                cameras.get(owner).add(camera);
+            }
+        }
+        cameras.replaceAll((name, list) -> List.copyOf(list));
+        if (current == null || !current.capacities().equals(capacities)) {
+            log.info("Assigned {} cameras to recorders {}", items.size(), assignment.loads());
+        }
+        plan = new Plan(capacities, snapshot, cameras, assignment.loads());
+    }
+
+    /**
+     * Estimated encode cost of a camera: pixels × fps × preset factor, relative to a 1080p30 camera on the
+     * medium preset. Missing or unreadable values count as that reference.
+     */
+    public static double encodeCost(CameraModel camera) {
+        double pixels = REFERENCE_PIXELS;
+        if (camera.getResolution() != null) {
+            String[] size = camera.getResolution().toLowerCase(Locale.ROOT).split("x");
+            try {
+                if (size.length == 2) {
+                    pixels = Double.parseDouble(size[0].trim()) * Double.parseDouble(size[1].trim());
+                }
+            } catch (NumberFormatException e) {
+                // Keep the reference
+            }
+        }
+        double fps = REFERENCE_FPS;
+        if (camera.getFps() != null) {
+            try {
+                fps = Double.parseDouble(camera.getFps().trim());
+            } catch (NumberFormatException e) {
+                // Keep the reference
+            }
+        }
+        double preset = camera.getPreset() != null
+                ? PRESET_COST.getOrDefault(camera.getPreset().trim().toLowerCase(Locale.ROOT), 1.0)
+                : 1.0;
+        return Math.max(pixels, 1) * Math.max(fps, 1) / (REFERENCE_PIXELS * REFERENCE_FPS) * preset;
+    }
+
+    private static String tagOf(List<CameraModel> cameras) {
+        long hash = 0xcbf29ce484222325L;
+        for (CameraModel camera : cameras) {
+            hash = (hash ^ camera.getId()) * 0x100000001b3L;
+            hash = (hash ^ camera.getVersion()) * 0x100000001b3L;
+        }
+        return Long.toHexString(hash);
+    }
+
+    private Plan currentPlan() {
+        Plan current = plan;
+        if (current == null) {
+            refresh();
+            current = plan;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,177 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.RecordingSegmentDTO;
+import com.bigBrother.api.models.RecordingSegmentModel;
+import com.bigBrother.api.repositories.RecordingSegmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of the recorded footage per camera.
+ * Every segment is persisted; segments that ended within the recent window are also kept in a per-camera
+ * skip list ordered by start time, so timeline queries over recent footage are answered from memory.
+ * Segments recorded through other replicas are picked up by polling new rows by id.
+ */
+@Service
+public class RecordingSegmentService {
+
+    private static final Comparator<Segment> BY_START = Comparator.comparingLong(Segment::start).thenComparingLong(Segment::id);
+
+    // Ids are assigned before commit, so a slow transaction can commit below the cursor; re-read this many ids back
+    private static final long SYNC_OVERLAP = 500;
+
+    private final RecordingSegmentRepository recordingSegmentRepository;
+
+    private final Map<Long, NavigableSet<Segment>> recent = new ConcurrentHashMap<>();
+
+    @Value("${segments.max-duration:6h}")
+    private Duration maxDuration;
+
+    @Value("${segments.recent-window:24h}")
+    private Duration recentWindow;
+
+    private volatile long lastSeenId = 0;
+
+    public RecordingSegmentService(RecordingSegmentRepository recordingSegmentRepository) {
+        this.recordingSegmentRepository = recordingSegmentRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        sync();
+    }
+
+    /**
+     * Records a segment of footage for a camera.
+     *
+     * @throws IllegalArgumentException if the time range is empty or longer than the maximum segment duration.
+     */
+    public RecordingSegmentDTO record(Long cameraId, Instant startTime, Instant endTime, long sizeBytes, String storageKey) {
+        validate(startTime, endTime);
+        RecordingSegmentModel segment = new RecordingSegmentModel();
+        segment.setCameraId(cameraId);
+        segment.setStartTime(startTime);
+        segment.setEndTime(endTime);
+        segment.setSizeBytes(sizeBytes);
+        segment.setStorageKey(storageKey);
+        RecordingSegmentModel saved = recordingSegmentRepository.save(segment);
+        addRecent(saved);
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Checks a segment time range before anything is uploaded.
+     *
+     * @throws IllegalArgumentException if the time range is empty or longer than the maximum segment duration.
+     */
+    public void validate(Instant startTime, Instant endTime) {
+        if (!endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("Segment end time must be after its start time");
+        }
+        if (Duration.between(startTime, endTime).compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Segment is longer than the maximum of " + maxDuration);
+        }
+    }
+
+    /**
+     * Finds the segments of a camera overlapping [from, to), ordered by start time.
+     */
+    public List<RecordingSegmentDTO> find(Long cameraId, Instant from, Instant to) {
+        long lowerBound = from.minus(maxDuration).toEpochMilli();
+        if (from.isAfter(horizon())) {
+            NavigableSet<Segment> segments = recent.get(cameraId);
+            List<RecordingSegmentDTO> result = new ArrayList<>();
+            if (segments == null) return result;
+            Segment low = new Segment(Long.MIN_VALUE, cameraId, lowerBound, 0, 0, null);
+            Segment high = new Segment(Long.MIN_VALUE, cameraId, to.toEpochMilli(), 0, 0, null);
+            for (Segment segment : segments.subSet(low, true, high, false)) {
+                if (segment.end() > from.toEpochMilli()) result.add(segment.toDTO());
+            }
+            return result;
+        }
+        return recordingSegmentRepository.findOverlapping(cameraId, Instant.ofEpochMilli(lowerBound), from, to)
+                .stream().map(this::convertToDTO).toList();
+    }
+
+    /**
+     * Pulls segments recorded by other replicas.
+     */
+    @Scheduled(fixedDelayString = "${segments.sync-interval-ms:5000}")
+    public void sync() {
+        Instant horizon = horizon();
+        long cursor = Math.max(0, lastSeenId - SYNC_OVERLAP);
+        List<RecordingSegmentModel> page;
+        do {
+            page = recordingSegmentRepository.findTop1000ByIdGreaterThanAndEndTimeAfterOrderByIdAsc(cursor, horizon);
+            for (RecordingSegmentModel segment : page) {
+                addRecent(segment);
+                cursor = segment.getId();
+            }
+        } while (page.size() == 1000);
+        lastSeenId = Math.max(lastSeenId, cursor);
+    }
+
+    @Scheduled(fixedDelayString = "${segments.evict-interval-ms:600000}")
+    public void evictOld() {
+        long horizon = horizon().toEpochMilli();
+        // Per key, under the map's lock, so a segment added concurrently never lands in a set that is being dropped
+        for (Long cameraId : recent.keySet()) {
+            recent.computeIfPresent(cameraId, (id, segments) -> {
+                segments.removeIf(segment -> segment.end() < horizon);
+                return segments.isEmpty() ? null : segments;
+            });
+        }
+    }
+
+    private Instant horizon() {
+        return Instant.now().minus(recentWindow);
+    }
+
+    private void addRecent(RecordingSegmentModel model) {
+        if (model.getEndTime().isBefore(horizon())) return;
+        Segment segment = new Segment(model.getId(), model.getCameraId(), model.getStartTime().toEpochMilli(),
+                model.getEndTime().toEpochMilli(), model.getSizeBytes(), model.getStorageKey());
+        recent.compute(model.getCameraId(), (id, segments) -> {
+            if (segments == null) segments = new ConcurrentSkipListSet<>(BY_START);
+            segments.add(segment);
+            return segments;
+        });
+    }
+
+    private RecordingSegmentDTO convertToDTO(RecordingSegmentModel model) {
+        RecordingSegmentDTO dto = new RecordingSegmentDTO();
+        dto.setId(model.getId());
+        dto.setCameraId(model.getCameraId());
+        dto.setStartTime(model.getStartTime());
+        dto.setEndTime(model.getEndTime());
+        dto.setSizeBytes(model.getSizeBytes());
+        dto.setStorageKey(model.getStorageKey());
+        return dto;
+    }
+
+    // Compact in-memory form, times in epoch milliseconds
+    private record Segment(long id, long cameraId, long start, long end, long sizeBytes, String storageKey) {
+        RecordingSegmentDTO toDTO() {
+            RecordingSegmentDTO dto = new RecordingSegmentDTO();
+            dto.setId(id);
+            dto.setCameraId(cameraId);
+            dto.setStartTime(Instant.ofEpochMilli(start));
+            dto.setEndTime(Instant.ofEpochMilli(end));
+            dto.setSizeBytes(sizeBytes);
+            dto.setStorageKey(storageKey);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.models.RefreshTokenModel;
+import com.bigBrother.api.repositories.RefreshTokenRepository;
+import com.bigBrother.api.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * Every refresh revokes the presented token and issues a new one in the same family;
+ * presenting an already rotated token is treated as theft and revokes the whole family.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Value("${jwt.refresh-token-ttl:14d}")
+    private Duration refreshTokenTtl;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Starts a new token family for a fresh login.
+     *
+     * @param username The authenticated user.
+     * @return The raw refresh token to hand to the client.
+     */
+    @Transactional
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one.
+     *
+     * @param rawToken The refresh token presented by the client.
+     * @return The username and the replacement token.
+     * @throws BadCredentialsException if the token is unknown, expired, reused or the user is disabled.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshTokenModel current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (current.isRevoked() || refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Refresh token reuse detected");
+        }
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        boolean enabled = userRepository.findByUsername(current.getUsername())
+                .map(user -> user.isEnabled())
+                .orElse(false);
+        if (!enabled) {
+            refreshTokenRepository.revokeAllForUser(current.getUsername());
+            throw new BadCredentialsException("User is disabled");
+        }
+        return new Rotation(current.getUsername(), issue(current.getUsername(), current.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family of the given token, used on logout.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Revokes every refresh token of a user, used when the account is deleted: a new account registered later
+     * under the same username must not inherit them.
+     */
+    @Transactional
+    public void revokeAllForUser(String username) {
+        refreshTokenRepository.revokeAllForUser(username);
+    }
+
+    public Duration getRefreshTokenTtl() {
+        return refreshTokenTtl;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private String issue(String username, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshTokenModel token = new RefreshTokenModel();
+        token.setTokenHash(hash(rawToken));
+        token.setUsername(username);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(Instant.now().plus(refreshTokenTtl));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a successful rotation.
+     */
+    public record Rotation(String username, String refreshToken) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.models.SigningKeyModel;
+import com.bigBrother.api.repositories.SigningKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Manages the RSA key pairs used to sign access tokens.
+ * Keys are stored in the database so every replica signs and verifies with the same set,
+ * rotated on a schedule, published ahead of activation and kept until the tokens they signed have expired.
+ */
+@Service
+public class SigningKeyService {
+
+    private static final String ALGORITHM = "RS256";
+
+    private final SigningKeyRepository signingKeyRepository;
+
+    @Value("${jwt.signing.rotation-period:30d}")
+    private Duration rotationPeriod;
+
+    @Value("${jwt.signing.publish-delay:1h}")
+    private Duration publishDelay;
+
+    @Value("${jwt.access-token-ttl:15m}")
+    private Duration accessTokenTtl;
+
+    private volatile KeySet keySet = new KeySet(List.of());
+
+    private volatile long lastReload = 0;
+
+    public SigningKeyService(SigningKeyRepository signingKeyRepository) {
+        this.signingKeyRepository = signingKeyRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        if (keySet.keys().isEmpty()) {
+            // First start: nobody can have cached a key set yet, so the key is usable immediately
+            createKey(Instant.now());
+            reload();
+        }
+    }
+
+    /**
+     * Returns the key new tokens are signed with: the most recent key that is already active.
+     */
+    public SigningKey currentSigningKey() {
+        List<SigningKey> keys = keySet.keys();
+        Instant now = Instant.now();
+        SigningKey current = keys.get(0);
+        for (SigningKey key : keys) {
+            if (!key.activatesAt().isAfter(now)) current = key;
+        }
+        return current;
+    }
+
+    /**
+     * Looks up a verification key by id, reloading from the database once if another replica just rotated.
+     *
+     * @param kid The key id from the JWT header.
+     * @return The public key, or null if unknown or if there is no key id.
+     */
+    public PublicKey publicKey(String kid) {
+        if (kid == null) return null;
+        SigningKey key = keySet.byKid().get(kid);
+        if (key == null && System.currentTimeMillis() - lastReload > 10_000) {
+            reload();
+            key = keySet.byKid().get(kid);
+        }
+        return key != null ? key.publicKey() : null;
+    }
+
+    /**
+     * Returns the JSON Web Key Set with every key that may still verify a token, prebuilt on reload.
+     */
+    public Map<String, Object> jwks() {
+        return keySet.jwks();
+    }
+
+    /**
+     * Creates the next key when the newest one is older than the rotation period and drops keys
+     * whose tokens can no longer be valid.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.check-interval-ms:600000}")
+    public void rotate() {
+        reload();
+        Instant now = Instant.now();
+        List<SigningKey> keys = keySet.keys();
+        SigningKey newest = keys.get(keys.size() - 1);
+        if (newest.createdAt().plus(rotationPeriod).isBefore(now)) {
+            createKey(now.plus(publishDelay));
+        }
+
+        // A key is retired once its successor has been signing for longer than an access token lives
+        for (int i = 0; i < keys.size() - 1; i++) {
+            Instant successorActive = keys.get(i + 1).activatesAt();
+            if (successorActive.plus(accessTokenTtl).plus(Duration.ofMinutes(5)).isBefore(now)) {
+                signingKeyRepository.deleteById(keys.get(i).kid());
+            }
+        }
+        reload();
+    }
+
+    private synchronized void reload() {
+        List<SigningKey> keys = new ArrayList<>();
+        for (SigningKeyModel model : signingKeyRepository.findAllByOrderByActivatesAtAsc()) {
+            keys.add(decode(model));
+        }
+        keySet = new KeySet(keys);
+        lastReload = System.currentTimeMillis();
+    }
+
+    private void createKey(Instant activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.generateKeyPair();
+
+            SigningKeyModel model = new SigningKeyModel();
+            model.setKid(UUID.randomUUID().toString());
+            model.setAlgorithm(ALGORITHM);
+            model.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+            model.setPrivateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()));
+            model.setCreatedAt(Instant.now());
+            model.setActivatesAt(activatesAt);
+            signingKeyRepository.save(model);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate signing key", e);
+        }
+    }
+
+    private static SigningKey decode(SigningKeyModel model) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(model.getPublicKey())));
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(model.getPrivateKey())));
+            return new SigningKey(model.getKid(), publicKey, privateKey, model.getCreatedAt(), model.getActivatesAt());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid signing key " + model.getKid(), e);
+        }
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // BigInteger adds a sign byte, JWK wants the unsigned big-endian form
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * A decoded key pair.
+     */
+    public record SigningKey(String kid, PublicKey publicKey, PrivateKey privateKey, Instant createdAt, Instant activatesAt) {
+    }
+
+    private record KeySet(List<SigningKey> keys, Map<String, SigningKey> byKid, Map<String, Object> jwks) {
+        KeySet(List<SigningKey> keys) {
+            this(List.copyOf(keys), index(keys), buildJwks(keys));
+        }
+
+        private static Map<String, SigningKey> index(List<SigningKey> keys) {
+            Map<String, SigningKey> byKid = new LinkedHashMap<>();
+            keys.forEach(key -> byKid.put(key.kid(), key));
+            return Map.copyOf(byKid);
+        }
+
+        private static Map<String, Object> buildJwks(List<SigningKey> keys) {
+            List<Map<String, Object>> jwks = new ArrayList<>();
+            for (SigningKey key : keys) {
+                RSAPublicKey rsa = (RSAPublicKey) key.publicKey();
+                Map<String, Object> jwk = new LinkedHashMap<>();
+                jwk.put("kty", "RSA");
+                jwk.put("use", "sig");
+                jwk.put("alg", ALGORITHM);
+                jwk.put("kid", key.kid());
+                jwk.put("n", base64Url(rsa.getModulus()));
+                jwk.put("e", base64Url(rsa.getPublicExponent()));
+                jwks.add(jwk);
+            }
+            return Map.of("keys", List.copyOf(jwks));
+        }
+    }
+}
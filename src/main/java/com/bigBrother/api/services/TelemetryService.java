@@ -0,0 +1,252 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.TelemetrySampleDTO;
+import com.bigBrother.api.dtos.TelemetrySeriesDTO;
+import com.bigBrother.api.dtos.TelemetryWindowDTO;
+import com.bigBrother.api.models.CameraTelemetryModel;
+import com.bigBrother.api.repositories.CameraRepository;
+import com.bigBrother.api.repositories.CameraTelemetryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests per-camera runtime samples into in-memory ring buffers, rolls them up into fixed windows
+ * and writes the windows to Postgres in batches. Ingestion never touches the database.
+ */
+@Service
+public class TelemetryService {
+
+    private static final Logger log = LoggerFactory.getLogger(TelemetryService.class);
+
+    private final CameraTelemetryRepository cameraTelemetryRepository;
+    private final CameraRepository cameraRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter droppedWindows;
+
+    private final Map<Long, CameraTelemetryBuffer> buffers = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PendingWindow> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    @Value("${telemetry.buffer-capacity:256}")
+    private int bufferCapacity;
+
+    @Value("${telemetry.window-seconds:10}")
+    private int windowSeconds;
+
+    @Value("${telemetry.max-cameras:20000}")
+    private int maxCameras;
+
+    @Value("${telemetry.max-pending-windows:100000}")
+    private int maxPendingWindows;
+
+    @Value("${telemetry.retention:7d}")
+    private Duration retention;
+
+    public TelemetryService(CameraTelemetryRepository cameraTelemetryRepository,
+                            CameraRepository cameraRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.cameraTelemetryRepository = cameraTelemetryRepository;
+        this.cameraRepository = cameraRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.droppedWindows = Counter.builder("telemetry.windows.dropped").register(meterRegistry);
+    }
+
+    /**
+     * Records samples in memory.
+     *
+     * @param samples The samples, possibly for several cameras.
+     * @return The number of samples accepted.
+     */
+    public int record(List<TelemetrySampleDTO> samples) {
+        long now = System.currentTimeMillis();
+        int accepted = 0;
+        for (TelemetrySampleDTO sample : samples) {
+            if (sample.getCameraId() == null) continue;
+            CameraTelemetryBuffer buffer = buffers.get(sample.getCameraId());
+            if (buffer == null) {
+                if (buffers.size() >= maxCameras) continue;
+                buffer = buffers.computeIfAbsent(sample.getCameraId(), id -> new CameraTelemetryBuffer(bufferCapacity));
+            }
+            buffer.add(sample.getTimestamp() != null ? sample.getTimestamp() : now, sample);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Closes the current window for every camera and queues the aggregates for flushing.
+     */
+    @Scheduled(fixedRateString = "#{${telemetry.window-seconds:10} * 1000}")
+    public void rollUp() {
+        long now = System.currentTimeMillis();
+        Instant windowStart = Instant.ofEpochMilli(now - windowSeconds * 1000L);
+        long idleCutoff = now - Duration.ofMinutes(10).toMillis();
+        for (Map.Entry<Long, CameraTelemetryBuffer> entry : buffers.entrySet()) {
+            TelemetryWindowDTO window = entry.getValue().rollUp(windowStart, windowSeconds);
+            if (window != null) {
+                if (!enqueue(new PendingWindow(entry.getKey(), window))) {
+                    droppedWindows.increment();
+                }
+            } else if (entry.getValue().getLastWrite() < idleCutoff) {
+                // Camera stopped reporting, release its buffer
+                buffers.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes queued windows with one batched insert, in one transaction. If the write fails the windows go back
+     * on the queue, as far as it has room, and are retried with the next flush; the rest are counted as dropped.
+     */
+    @Scheduled(fixedDelayString = "${telemetry.flush-interval-ms:30000}")
+    public void flush() {
+        List<PendingWindow> batch = new ArrayList<>();
+        PendingWindow next;
+        while ((next = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(next);
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+        } catch (DataAccessException e) {
+            int requeued = 0;
+            for (PendingWindow item : batch) {
+                if (!enqueue(item)) break;
+                requeued++;
+            }
+            droppedWindows.increment(batch.size() - requeued);
+            log.warn("Could not write {} telemetry windows, {} queued for the next flush: {}", batch.size(), requeued, e.getMessage());
+        }
+    }
+
+    private boolean enqueue(PendingWindow item) {
+        if (pendingCount.get() >= maxPendingWindows) return false;
+        pending.add(item);
+        pendingCount.incrementAndGet();
+        return true;
+    }
+
+    private void insert(List<PendingWindow> batch) {
+        jdbcTemplate.batchUpdate(
+                "insert into camera_telemetry (camera_id, window_start, window_seconds, samples, fps_min, fps_max, fps_avg, "
+                        + "dropped_frames, bitrate_min, bitrate_max, bitrate_avg, buffer_fill_min, buffer_fill_max, buffer_fill_avg) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                batch, 500, (ps, item) -> {
+                    TelemetryWindowDTO w = item.window();
+                    ps.setLong(1, item.cameraId());
+                    ps.setTimestamp(2, Timestamp.from(w.getWindowStart()));
+                    ps.setInt(3, w.getWindowSeconds());
+                    ps.setInt(4, w.getSamples());
+                    ps.setDouble(5, w.getFpsMin());
+                    ps.setDouble(6, w.getFpsMax());
+                    ps.setDouble(7, w.getFpsAvg());
+                    ps.setLong(8, w.getDroppedFrames());
+                    ps.setDouble(9, w.getBitrateMin());
+                    ps.setDouble(10, w.getBitrateMax());
+                    ps.setDouble(11, w.getBitrateAvg());
+                    ps.setDouble(12, w.getBufferFillMin());
+                    ps.setDouble(13, w.getBufferFillMax());
+                    ps.setDouble(14, w.getBufferFillAvg());
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        cameraTelemetryRepository.deleteOlderThan(Instant.now().minus(retention));
+    }
+
+    /**
+     * Returns the windows of a camera in a time range: persisted windows plus the ones still waiting to be flushed.
+     */
+    public TelemetrySeriesDTO series(Long cameraId, Instant from, Instant to) {
+        TreeMap<Instant, TelemetryWindowDTO> windows = new TreeMap<>();
+        for (CameraTelemetryModel model : cameraTelemetryRepository.findByCameraIdAndWindowStartBetweenOrderByWindowStartAsc(cameraId, from, to)) {
+            windows.put(model.getWindowStart(), convertToDTO(model));
+        }
+        for (PendingWindow item : pending) {
+            Instant start = item.window().getWindowStart();
+            if (item.cameraId().equals(cameraId) && !start.isBefore(from) && !start.isAfter(to)) {
+                windows.put(start, item.window());
+            }
+        }
+
+        TelemetrySeriesDTO series = new TelemetrySeriesDTO();
+        series.setCameraId(cameraId);
+        series.setConfiguredFps(configuredFps(cameraId));
+        series.setWindows(new ArrayList<>(windows.values()));
+        return series;
+    }
+
+    /**
+     * Returns the most recent raw samples of a camera held by this node.
+     */
+    public List<TelemetrySampleDTO> latest(Long cameraId, int limit) {
+        CameraTelemetryBuffer buffer = buffers.get(cameraId);
+        if (buffer == null) return List.of();
+        List<TelemetrySampleDTO> samples = buffer.latest(cameraId, limit);
+        samples.sort(Comparator.comparing(TelemetrySampleDTO::getTimestamp));
+        return samples;
+    }
+
+    private Double configuredFps(Long cameraId) {
+        return cameraRepository.findById(cameraId)
+                .map(camera -> {
+                    try {
+                        return camera.getFps() != null ? Double.valueOf(camera.getFps().trim()) : null;
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private TelemetryWindowDTO convertToDTO(CameraTelemetryModel model) {
+        TelemetryWindowDTO window = new TelemetryWindowDTO();
+        window.setWindowStart(model.getWindowStart());
+        window.setWindowSeconds(model.getWindowSeconds());
+        window.setSamples(model.getSamples());
+        window.setFpsMin(model.getFpsMin());
+        window.setFpsMax(model.getFpsMax());
+        window.setFpsAvg(model.getFpsAvg());
+        window.setDroppedFrames(model.getDroppedFrames());
+        window.setBitrateMin(model.getBitrateMin());
+        window.setBitrateMax(model.getBitrateMax());
+        window.setBitrateAvg(model.getBitrateAvg());
+        window.setBufferFillMin(model.getBufferFillMin());
+        window.setBufferFillMax(model.getBufferFillMax());
+        window.setBufferFillAvg(model.getBufferFillAvg());
+        return window;
+    }
+
+    private record PendingWindow(Long cameraId, TelemetryWindowDTO window) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.models.RevokedTokenModel;
+import com.bigBrother.api.repositories.RevokedTokenRepository;
+import com.bigBrother.api.utils.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the set of revoked access token ids in memory so the authentication filter never has to query the database.
+ * The Bloom filter answers the common "not revoked" case without touching the map; hits are confirmed against the exact set.
+ * Revocations are persisted and every replica picks up new rows incrementally by id.
+ */
+@Service
+public class TokenRevocationService {
+
+    // Ids are assigned before commit, so a slow transaction can commit below the cursor; re-read this many ids back
+    private static final long SYNC_OVERLAP = 500;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile long lastSeenId = 0;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        bloomFilter = new BloomFilter(expectedEntries, 0.01);
+        sync();
+    }
+
+    /**
+     * Returns true if the token id has been revoked. Runs entirely in memory.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        return bloomFilter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revokes an access token until its natural expiry.
+     *
+     * @param jti The token id.
+     * @param expiresAt When the token expires.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt.isBefore(Instant.now())) return;
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            RevokedTokenModel entry = new RevokedTokenModel();
+            entry.setJti(jti);
+            entry.setExpiresAt(expiresAt);
+            try {
+                revokedTokenRepository.save(entry);
+            } catch (DataIntegrityViolationException e) {
+                // Revoked concurrently by another request, nothing else to do
+            }
+        }
+        addLocal(jti, expiresAt);
+    }
+
+    /**
+     * Pulls revocations written by other replicas since the last poll, re-reading {@code SYNC_OVERLAP} ids behind
+     * the cursor so a revocation that committed after a higher id is not skipped.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        long cursor = Math.max(0, lastSeenId - SYNC_OVERLAP);
+        for (RevokedTokenModel entry : revokedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(cursor, Instant.now())) {
+            addLocal(entry.getJti(), entry.getExpiresAt());
+            cursor = entry.getId();
+        }
+        lastSeenId = Math.max(lastSeenId, cursor);
+    }
+
+    /**
+     * Drops entries for tokens that have expired anyway and rebuilds the filter, since Bloom filters cannot remove.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), 0.01);
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+        // Entries revoked while rebuilding may have missed the new filter
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    private void addLocal(String jti, Instant expiresAt) {
+        // Exact set first so a concurrent reader never sees a filter hit without the entry
+        revoked.put(jti, expiresAt);
+        bloomFilter.add(jti);
+    }
+}
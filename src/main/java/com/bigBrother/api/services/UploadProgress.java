@@ -0,0 +1,112 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.UploadPartProgressDTO;
+import com.bigBrother.api.dtos.UploadProgressDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live progress of one upload to content-manager, updated from the part threads without locking.
+ */
+public final class UploadProgress {
+
+    enum PartStatus {
+        PENDING, SENDING, DONE, FAILED
+    }
+
+    private final String id;
+    private final String filename;
+    private final long totalBytes;
+    private final long partSize;
+    private final AtomicLongArray sentBytes;
+    private final AtomicIntegerArray statuses;
+    private final AtomicIntegerArray attempts;
+    private final Instant startedAt = Instant.now();
+
+    private volatile int concurrency = 1;
+    private volatile String status = "UPLOADING";
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    UploadProgress(String id, String filename, long totalBytes, long partSize) {
+        this.id = id;
+        this.filename = filename;
+        this.totalBytes = totalBytes;
+        this.partSize = Math.max(1, partSize);
+        int parts = (int) Math.max(1, (totalBytes + this.partSize - 1) / this.partSize);
+        this.sentBytes = new AtomicLongArray(parts);
+        this.statuses = new AtomicIntegerArray(parts);
+        this.attempts = new AtomicIntegerArray(parts);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getPartCount() {
+        return sentBytes.length();
+    }
+
+    void partStarted(int partNumber) {
+        sentBytes.set(partNumber - 1, 0);
+        statuses.set(partNumber - 1, PartStatus.SENDING.ordinal());
+        attempts.incrementAndGet(partNumber - 1);
+    }
+
+    void addBytes(int partNumber, long bytes) {
+        sentBytes.addAndGet(partNumber - 1, bytes);
+    }
+
+    void partDone(int partNumber) {
+        statuses.set(partNumber - 1, PartStatus.DONE.ordinal());
+    }
+
+    void partFailed(int partNumber) {
+        statuses.set(partNumber - 1, PartStatus.FAILED.ordinal());
+    }
+
+    void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    void finish(String error) {
+        this.error = error;
+        this.status = error == null ? "COMPLETED" : "FAILED";
+        this.finishedAt = Instant.now();
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    UploadProgressDTO toDTO() {
+        UploadProgressDTO dto = new UploadProgressDTO();
+        dto.setId(id);
+        dto.setFilename(filename);
+        dto.setStatus(status);
+        dto.setError(error);
+        dto.setTotalBytes(totalBytes);
+        dto.setConcurrency(concurrency);
+        dto.setStartedAt(startedAt);
+        dto.setFinishedAt(finishedAt);
+        List<UploadPartProgressDTO> parts = new ArrayList<>(sentBytes.length());
+        long sent = 0;
+        for (int i = 0; i < sentBytes.length(); i++) {
+            UploadPartProgressDTO part = new UploadPartProgressDTO();
+            part.setPartNumber(i + 1);
+            part.setSize(Math.min(partSize, totalBytes - i * partSize));
+            part.setSentBytes(sentBytes.get(i));
+            part.setStatus(PartStatus.values()[statuses.get(i)].name());
+            part.setAttempts(attempts.get(i));
+            parts.add(part);
+            sent += part.getSentBytes();
+        }
+        dto.setSentBytes(sent);
+        dto.setParts(parts);
+        return dto;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.UploadProgressDTO;
+import com.bigBrother.api.exceptions.UploadInProgressException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uploads in flight and recently finished, so clients can poll their progress. Upload ids are chosen by the
+ * clients, so they are kept per user: one user can neither read nor take over another user's upload by
+ * guessing or reusing its id.
+ */
+@Service
+public class UploadProgressRegistry {
+
+    private record Key(String owner, String id) {
+    }
+
+    private final Map<Key, UploadProgress> uploads = new ConcurrentHashMap<>();
+
+    @Value("${upload.progress.retention:10m}")
+    private Duration retention;
+
+    /**
+     * @param owner Name of the user uploading.
+     * @throws UploadInProgressException if the user has an unfinished upload with this id.
+     */
+    public UploadProgress start(String owner, String id, String filename, long totalBytes, long partSize) {
+        return uploads.compute(new Key(owner, id), (key, existing) -> {
+            if (existing != null && existing.getFinishedAt() == null) {
+                throw new UploadInProgressException("Upload " + id + " is already in progress");
+            }
+            return new UploadProgress(id, filename, totalBytes, partSize);
+        });
+    }
+
+    public Optional<UploadProgressDTO> find(String owner, String id) {
+        UploadProgress progress = uploads.get(new Key(owner, id));
+        return progress != null ? Optional.of(progress.toDTO()) : Optional.empty();
+    }
+
+    /**
+     * Forgets uploads that finished longer than the retention ago.
+     */
+    @Scheduled(fixedDelayString = "${upload.progress.evict-interval-ms:60000}")
+    public void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        uploads.values().removeIf(progress -> progress.getFinishedAt() != null && progress.getFinishedAt().isBefore(cutoff));
+    }
+}
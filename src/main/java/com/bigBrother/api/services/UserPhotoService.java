@@ -0,0 +1,190 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.exceptions.ResourceNotFoundException;
+import com.bigBrother.api.models.UserModel;
+import com.bigBrother.api.models.UserPhotoModel;
+import com.bigBrother.api.repositories.UserPhotoRepository;
+import com.bigBrother.api.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * User photos, stored apart from the users table so the row read on every authenticated request stays small.
+ * The user row only keeps a short content hash, the photo tag, which also versions the photo URL:
+ * a new photo gets a new URL, so clients can cache each one for good.
+ */
+@Service
+public class UserPhotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPhotoService.class);
+    private static final long MIGRATION_LOCK_KEY = 0x7573727068L; // "usrph"
+
+    private final UserPhotoRepository userPhotoRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserPhotoService(UserPhotoRepository userPhotoRepository, UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.userPhotoRepository = userPhotoRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * URL of the user's photo, versioned by its tag, or an empty string without photo.
+     */
+    public static String photoUrl(Long userId, String photoTag) {
+        return photoTag != null ? "/api/users/" + userId + "/photo?v=" + photoTag : "";
+    }
+
+    public Optional<String> findTag(Long userId) {
+        return userPhotoRepository.findTagByUserId(userId);
+    }
+
+    public Optional<UserPhotoModel> find(Long userId) {
+        return userPhotoRepository.findById(userId);
+    }
+
+    /**
+     * Replaces the user's photo.
+     *
+     * @return The tag of the new photo.
+     * @throws ResourceNotFoundException if the user does not exist.
+     */
+    @Transactional
+    public String store(Long userId, String contentType, byte[] content) {
+        return save(userId, contentType, content, null, tag(content));
+    }
+
+    /**
+     * Removes the user's photo.
+     *
+     * @return Whether the user had a photo.
+     * @throws ResourceNotFoundException if the user does not exist.
+     */
+    @Transactional
+    public boolean delete(Long userId) {
+        UserModel user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        boolean deleted = userPhotoRepository.deleteByUserId(userId) > 0;
+        if (user.getPhotoTag() != null) {
+            user.setPhotoTag(null);
+            userRepository.save(user);
+        }
+        return deleted;
+    }
+
+    /**
+     * Moves photos left in the old {@code users.photo} column into {@code user_photos}: data URIs are decoded
+     * into images, anything else is kept as a URL to redirect to, percent-encoded if needed (e.g. spaces) so it can be
+     * sent as a Location. The old values are cleared once moved; the column itself stays until no replica runs a
+     * version that still maps it. Replicas starting together take turns on an advisory lock, and a value that cannot
+     * be decoded, or is not an http(s) or absolute-path URL, is left in place and logged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void migrateLegacyPhotos() {
+        Integer legacyColumns = jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'photo'", Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) return;
+
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> { }, MIGRATION_LOCK_KEY);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT id, photo FROM users WHERE photo <> ''");
+        int migrated = 0;
+        for (Map<String, Object> row : rows) {
+            Long userId = ((Number) row.get("id")).longValue();
+            String photo = ((String) row.get("photo")).trim();
+            try {
+                if (photo.startsWith("data:")) {
+                    int comma = photo.indexOf(',');
+                    String mediaType = photo.substring(5, comma);
+                    boolean base64 = mediaType.endsWith(";base64");
+                    String data = photo.substring(comma + 1);
+                    byte[] content = base64
+                            ? Base64.getMimeDecoder().decode(data)
+                            : UriUtils.decode(data, StandardCharsets.ISO_8859_1).getBytes(StandardCharsets.ISO_8859_1);
+                    String contentType = mediaType.split(";")[0];
+                    save(userId, contentType.isEmpty() ? "application/octet-stream" : contentType, content, null, tag(content));
+                } else {
+                    String url = redirectUrl(photo);
+                    save(userId, null, null, url, tag(url.getBytes(StandardCharsets.UTF_8)));
+                }
+                jdbcTemplate.update("UPDATE users SET photo = NULL WHERE id = ?", userId);
+                migrated++;
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                log.warn("Could not migrate the photo of user {}: {}", userId, e.getMessage());
+            }
+        }
+        if (migrated > 0) {
+            log.info("Moved {} user photos to user_photos", migrated);
+        }
+    }
+
+    /**
+     * The legacy value as a valid URI to redirect to, encoding characters that are not allowed as they are.
+     *
+     * @throws IllegalArgumentException if it is not an http(s) URL or an absolute path.
+     */
+    static String redirectUrl(String value) {
+        URI uri;
+        try {
+            uri = new URI(value);
+        } catch (URISyntaxException e) {
+            uri = UriComponentsBuilder.fromUriString(value).encode().build().toUri();
+        }
+        String scheme = uri.getScheme();
+        boolean web = scheme != null && (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https")) && uri.getHost() != null;
+        boolean path = scheme == null && uri.getHost() == null && uri.getRawPath() != null && uri.getRawPath().startsWith("/");
+        if (!web && !path) {
+            throw new IllegalArgumentException("Not an http(s) URL or absolute path: " + value);
+        }
+        return uri.toString();
+    }
+
+    private String save(Long userId, String contentType, byte[] content, String externalUrl, String tag) {
+        UserModel user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        UserPhotoModel photo = userPhotoRepository.findById(userId).orElseGet(UserPhotoModel::new);
+        photo.setUserId(userId);
+        photo.setTag(tag);
+        photo.setContentType(contentType);
+        photo.setContent(content);
+        photo.setExternalUrl(externalUrl);
+        photo.setUpdatedAt(Instant.now());
+        userPhotoRepository.save(photo);
+        if (!tag.equals(user.getPhotoTag())) {
+            user.setPhotoTag(tag);
+            userRepository.save(user);
+        }
+        return tag;
+    }
+
+    // First 8 bytes of the SHA-256, as 16 hex characters
+    private static String tag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.events.ChangeListener;
+import com.bigBrother.api.events.EntityChangedEvent;
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.models.UserModel;
+import com.bigBrother.api.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users by username for the authentication filter, so authenticated requests do not query the database.
+ * Entries are dropped as soon as the user changes on any replica (see {@link ChangeNotificationService});
+ * the TTL only bounds staleness if a notification is ever lost.
+ */
+@Service
+public class UserPrincipalCache implements ChangeListener {
+
+    private record Entry(UserModel user, long loadedAt) {
+    }
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Entry> byUsername = new ConcurrentHashMap<>();
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced with one does not cache what it read
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${cache.users.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${cache.users.max-entries:10000}")
+    private int maxEntries;
+
+    public UserPrincipalCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Optional<UserModel> findByUsername(String username) {
+        long now = System.nanoTime();
+        Entry entry = byUsername.get(username);
+        if (entry != null && now - entry.loadedAt() < ttl.toNanos()) {
+            return Optional.of(entry.user());
+        }
+        long loadedGeneration = generation.get();
+        Optional<UserModel> user = userRepository.findByUsername(username);
+        user.ifPresent(u -> {
+            if (byUsername.size() >= maxEntries) {
+                onResync();
+            }
+            Entry loaded = new Entry(u, now);
+            usernames.put(u.getId(), username);
+            byUsername.put(username, loaded);
+            if (generation.get() != loadedGeneration) {
+                byUsername.remove(username, loaded);
+            }
+        });
+        return user;
+    }
+
+    @Override
+    public void onChange(EntityChangedEvent event) {
+        if (event.type() != EntityType.USER) return;
+        generation.incrementAndGet();
+        String username = usernames.remove(event.id());
+        if (username != null) {
+            byUsername.remove(username);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        generation.incrementAndGet();
+        byUsername.clear();
+        usernames.clear();
+    }
+}
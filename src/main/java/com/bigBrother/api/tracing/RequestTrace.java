@@ -0,0 +1,192 @@
+package com.bigBrother.api.tracing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timings collected for a single request. Only touched by the thread serving the request; for an async request the
+ * worker thread takes over the statement, repository and outbound counters once the handler has returned.
+ */
+public class RequestTrace {
+
+    private static final int MAX_STATEMENTS = 200;
+
+    private final String method;
+    private final String uri;
+    private final long startedAt = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+
+    private String handler;
+    private int status;
+    private long totalNanos;
+    private long controllerNanos;
+    private long repositoryNanos;
+    private int repositoryCalls;
+    private long sqlNanos;
+    private int sqlCount;
+    private long outboundNanos;
+    private int outboundCalls;
+
+    private String pendingSql;
+    private final Map<String, StatementStats> statements = new LinkedHashMap<>();
+    private final List<String> warnings = new ArrayList<>();
+
+    public RequestTrace(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+    }
+
+    void statementPrepared(String sql) {
+        pendingSql = normalize(sql);
+        sqlCount++;
+    }
+
+    void statementExecuted(long nanos) {
+        sqlNanos += nanos;
+        String sql = pendingSql != null ? pendingSql : "<unknown>";
+        StatementStats stats = statements.get(sql);
+        if (stats == null) {
+            if (statements.size() >= MAX_STATEMENTS) return;
+            stats = new StatementStats(sql);
+            statements.put(sql, stats);
+        }
+        stats.count++;
+        stats.totalNanos += nanos;
+        stats.maxNanos = Math.max(stats.maxNanos, nanos);
+    }
+
+    void repositoryCall(long nanos) {
+        repositoryNanos += nanos;
+        repositoryCalls++;
+    }
+
+    void controllerCall(String handler, long nanos) {
+        this.handler = handler;
+        this.controllerNanos += nanos;
+    }
+
+    void outboundCall(long nanos) {
+        outboundNanos += nanos;
+        outboundCalls++;
+    }
+
+    /**
+     * Closes the trace and flags repeated statements (N+1) and slow statements.
+     */
+    void finish(int status, int nPlusOneThreshold, long slowQueryNanos) {
+        this.status = status;
+        this.totalNanos = System.nanoTime() - startNanos;
+        for (StatementStats stats : statements.values()) {
+            if (stats.count >= nPlusOneThreshold && stats.sql.startsWith("select")) {
+                warnings.add("N+1 suspect: " + stats.count + "x " + stats.sql);
+            }
+            if (stats.maxNanos >= slowQueryNanos) {
+                warnings.add("Slow query: " + stats.maxNanos / 1_000_000 + "ms " + stats.sql);
+            }
+        }
+    }
+
+    // Collapse whitespace and IN lists so the same query with different arity groups together
+    static String normalize(String sql) {
+        return sql.replaceAll("\\s+", " ")
+                .replaceAll("\\(\\?(, ?\\?)+\\)", "(?)")
+                .trim()
+                .toLowerCase();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public double getTotalMs() {
+        return totalNanos / 1e6;
+    }
+
+    public double getControllerMs() {
+        return controllerNanos / 1e6;
+    }
+
+    public double getRepositoryMs() {
+        return repositoryNanos / 1e6;
+    }
+
+    public int getRepositoryCalls() {
+        return repositoryCalls;
+    }
+
+    public double getSqlMs() {
+        return sqlNanos / 1e6;
+    }
+
+    public int getSqlCount() {
+        return sqlCount;
+    }
+
+    public double getOutboundMs() {
+        return outboundNanos / 1e6;
+    }
+
+    public int getOutboundCalls() {
+        return outboundCalls;
+    }
+
+    public List<StatementStats> getStatements() {
+        return new ArrayList<>(statements.values());
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public boolean hasWarnings() {
+        return !warnings.isEmpty();
+    }
+
+    /**
+     * Aggregated executions of one normalized statement.
+     */
+    public static class StatementStats {
+        private final String sql;
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getTotalMs() {
+            return totalNanos / 1e6;
+        }
+
+        public double getMaxMs() {
+            return maxNanos / 1e6;
+        }
+    }
+}
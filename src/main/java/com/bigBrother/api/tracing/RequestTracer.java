@@ -0,0 +1,68 @@
+package com.bigBrother.api.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts and finishes request traces and hands the interesting ones to the {@link SlowRequestLog}.
+ * Healthy requests cost a few counter updates and are never logged.
+ */
+public class RequestTracer {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTracer.class);
+
+    private final SlowRequestLog slowRequestLog;
+    private final long slowRequestNanos;
+    private final long slowQueryNanos;
+    private final int nPlusOneThreshold;
+
+    public RequestTracer(SlowRequestLog slowRequestLog, long slowRequestMs, long slowQueryMs, int nPlusOneThreshold) {
+        this.slowRequestLog = slowRequestLog;
+        this.slowRequestNanos = slowRequestMs * 1_000_000;
+        this.slowQueryNanos = slowQueryMs * 1_000_000;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public RequestTrace start(String method, String uri) {
+        RequestTrace trace = new RequestTrace(method, uri);
+        TraceContext.bind(trace);
+        return trace;
+    }
+
+    /**
+     * Unbinds the trace from the serving thread while the request goes on asynchronously; finish it once the
+     * request completes.
+     */
+    public void suspend(RequestTrace trace) {
+        if (TraceContext.current() == trace) TraceContext.clear();
+    }
+
+    public void finish(RequestTrace trace, int status) {
+        // An async request finishes on whichever container thread completes it
+        if (TraceContext.current() == trace) TraceContext.clear();
+        trace.finish(status, nPlusOneThreshold, slowQueryNanos);
+        boolean slow = trace.getTotalMs() * 1_000_000 >= slowRequestNanos;
+        if (slow || trace.hasWarnings()) {
+            slowRequestLog.add(trace);
+            if (trace.hasWarnings()) {
+                log.warn("{} {} took {}ms with {} statements: {}", trace.getMethod(), trace.getUri(),
+                        Math.round(trace.getTotalMs()), trace.getSqlCount(), trace.getWarnings());
+            }
+        }
+    }
+
+    public static void recordRepositoryCall(long nanos) {
+        RequestTrace trace = TraceContext.current();
+        if (trace != null) trace.repositoryCall(nanos);
+    }
+
+    public static void recordControllerCall(String handler, long nanos) {
+        RequestTrace trace = TraceContext.current();
+        if (trace != null) trace.controllerCall(handler, nanos);
+    }
+
+    public static void recordOutboundCall(long nanos) {
+        RequestTrace trace = TraceContext.current();
+        if (trace != null) trace.outboundCall(nanos);
+    }
+}
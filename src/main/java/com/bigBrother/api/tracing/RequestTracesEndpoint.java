@@ -0,0 +1,24 @@
+package com.bigBrother.api.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Exposes the slowest recent requests at {@code /actuator/requesttraces}.
+ */
+@Endpoint(id = "requesttraces")
+public class RequestTracesEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public RequestTracesEndpoint(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @ReadOperation
+    public List<RequestTrace> traces() {
+        return slowRequestLog.snapshot();
+    }
+}
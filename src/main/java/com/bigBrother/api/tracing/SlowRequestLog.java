@@ -0,0 +1,38 @@
+package com.bigBrother.api.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring buffer of the most recent slow or flagged requests. Writers never block.
+ */
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<RequestTrace> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public SlowRequestLog(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(RequestTrace trace) {
+        int slot = (int) (cursor.getAndIncrement() % slots.length());
+        slots.set(slot, trace);
+    }
+
+    /**
+     * Returns the buffered requests, slowest first.
+     */
+    public List<RequestTrace> snapshot() {
+        List<RequestTrace> traces = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            RequestTrace trace = slots.get(i);
+            if (trace != null) traces.add(trace);
+        }
+        traces.sort(Comparator.comparingDouble(RequestTrace::getTotalMs).reversed());
+        return traces;
+    }
+}
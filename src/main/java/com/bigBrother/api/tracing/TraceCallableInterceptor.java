@@ -0,0 +1,26 @@
+package com.bigBrother.api.tracing;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Binds the request's trace on the worker thread of an async request, such as an upload {@code WebAsyncTask}
+ * or a {@code StreamingResponseBody}, so its SQL and outbound calls are attributed to the request.
+ */
+public class TraceCallableInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(TraceContext.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestTrace trace) {
+            TraceContext.bind(trace);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        TraceContext.clear();
+    }
+}
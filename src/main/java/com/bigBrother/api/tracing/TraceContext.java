@@ -0,0 +1,30 @@
+package com.bigBrother.api.tracing;
+
+/**
+ * Binds the current {@link RequestTrace} to the serving thread, and to the worker thread of an async request
+ * (see {@link TraceCallableInterceptor}). Work outside a traced request (schedulers, background writers) sees no trace and records nothing.
+ */
+public final class TraceContext {
+
+    /**
+     * Request attribute holding the trace, to bind it again on the threads an async request continues on.
+     */
+    public static final String REQUEST_ATTRIBUTE = RequestTrace.class.getName();
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
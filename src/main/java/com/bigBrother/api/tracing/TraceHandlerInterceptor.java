@@ -0,0 +1,45 @@
+package com.bigBrother.api.tracing;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Times the controller method and records which handler served the request. For an async request that is
+ * the time until the handler returned its task; the dispatch writing the result is not counted again.
+ */
+public class TraceHandlerInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = TraceHandlerInterceptor.class.getName() + ".start";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request, handler);
+    }
+
+    private void record(HttpServletRequest request, Object handler) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        request.removeAttribute(START_ATTRIBUTE);
+        if (start instanceof Long startNanos) {
+            String name = handler instanceof HandlerMethod method
+                    ? method.getBeanType().getSimpleName() + "#" + method.getMethod().getName()
+                    : handler.getClass().getSimpleName();
+            RequestTracer.recordControllerCall(name, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bigBrother.api.tracing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times JDBC executions and attributes them to the statement last seen by {@link TraceStatementInspector}.
+ * Instantiated by Hibernate for every session through {@code hibernate.session.events.auto}.
+ */
+public class TraceSessionEventListener extends BaseSessionEventListener {
+
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTrace trace = TraceContext.current();
+        if (trace != null && executeStart != 0) {
+            trace.statementExecuted(System.nanoTime() - executeStart);
+        }
+        executeStart = 0;
+    }
+}
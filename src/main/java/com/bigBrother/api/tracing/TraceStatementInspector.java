@@ -0,0 +1,18 @@
+package com.bigBrother.api.tracing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records every SQL statement Hibernate prepares against the current request, without changing it.
+ */
+public class TraceStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTrace trace = TraceContext.current();
+        if (trace != null) {
+            trace.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
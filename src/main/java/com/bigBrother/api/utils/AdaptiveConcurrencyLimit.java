@@ -0,0 +1,115 @@
+package com.bigBrother.api.utils;
+
+/**
+ * Concurrency limit that follows observed throughput (additive increase, multiplicative decrease).
+ * Work is measured in rounds of {@code limit} completions; a round that is clearly faster than the previous one
+ * earns another slot, a clearly slower one or a failure shrinks the limit, and an increase that bought nothing
+ * is undone. A stable limit is re-probed every few rounds so it can grow again when the link frees up.
+ * Thread-safe; times are passed in by the caller.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    // An extra slot has to buy at least 5% more throughput to be kept
+    private static final double GAIN = 1.05;
+    private static final double DROP = 0.8;
+    private static final int STABLE_ROUNDS_BEFORE_PROBE = 4;
+
+    private final int min;
+    private final int max;
+
+    private int limit;
+    private int inFlight;
+
+    private long roundStart;
+    private long roundBytes;
+    private int roundCompletions;
+    private double lastThroughput;
+    private boolean probing;
+    private int stableRounds;
+
+    public AdaptiveConcurrencyLimit(int min, int initial, int max, long startNanos) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid limits: min " + min + ", max " + max);
+        }
+        this.min = min;
+        this.max = max;
+        this.limit = Math.max(min, Math.min(max, initial));
+        this.roundStart = startNanos;
+    }
+
+    /**
+     * Blocks until a slot is free.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    /**
+     * Frees a slot and feeds the outcome of the work done in it into the limit.
+     *
+     * @param bytes Bytes transferred in the slot.
+     * @param nowNanos Completion time, same clock as the start time.
+     * @param success Whether the work succeeded; failures halve the limit.
+     */
+    public synchronized void release(long bytes, long nowNanos, boolean success) {
+        inFlight--;
+        if (!success) {
+            backOff();
+        } else {
+            roundBytes += bytes;
+            if (++roundCompletions >= limit) {
+                endRound(nowNanos);
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Halves the limit, e.g. when an attempt failed and is about to be retried in the same slot.
+     */
+    public synchronized void backOff() {
+        limit = Math.max(min, limit / 2);
+        probing = false;
+        stableRounds = 0;
+        lastThroughput = 0;
+        roundBytes = 0;
+        roundCompletions = 0;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    private void endRound(long nowNanos) {
+        long elapsed = Math.max(1, nowNanos - roundStart);
+        double throughput = (double) roundBytes / elapsed;
+        roundStart = nowNanos;
+        roundBytes = 0;
+        roundCompletions = 0;
+
+        if (lastThroughput == 0 || throughput >= lastThroughput * GAIN) {
+            probe();
+        } else if (throughput < lastThroughput * DROP) {
+            limit = Math.max(min, limit * 3 / 4);
+            probing = false;
+            stableRounds = 0;
+        } else if (probing) {
+            // The last extra slot did not pay off
+            limit = Math.max(min, limit - 1);
+            probing = false;
+            stableRounds = 0;
+        } else if (++stableRounds >= STABLE_ROUNDS_BEFORE_PROBE) {
+            probe();
+        }
+        lastThroughput = throughput;
+    }
+
+    private void probe() {
+        stableRounds = 0;
+        probing = limit < max;
+        limit = Math.min(max, limit + 1);
+    }
+}
@@ -0,0 +1,141 @@
+package com.bigBrother.api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consistent hashing with bounded loads over weighted nodes. Each node gets virtual nodes on the ring in
+ * proportion to its capacity; an item goes to the first node clockwise from its hash that stays under
+ * {@code loadFactor} times its fair share of the total cost, so one expensive item or an unlucky hash cannot
+ * overload a node. Adding or removing a node only moves the items it takes or gives up, plus the few that
+ * spill over because of the load bound. The result depends only on the nodes and items, not on their order,
+ * so every replica computes the same assignment.
+ */
+public class BoundedLoadHashRing {
+
+    public record Node(String name, double capacity) {
+    }
+
+    public record Item(long id, double cost) {
+    }
+
+    /**
+     * @param owners Node name per item id.
+     * @param loads Total item cost per node name, for every node.
+     */
+    public record Assignment(Map<Long, String> owners, Map<String, Double> loads) {
+    }
+
+    private final Node[] nodes;
+    private final long[] points;
+    private final int[] pointOwners;
+    private final double loadFactor;
+    private final double totalCapacity;
+
+    /**
+     * @param vnodesPerCapacity Virtual nodes per unit of capacity; more spread the load more evenly.
+     * @param loadFactor Maximum load relative to a node's fair share, above 1, e.g. 1.25.
+     */
+    public BoundedLoadHashRing(Collection<Node> nodes, int vnodesPerCapacity, double loadFactor) {
+        if (loadFactor <= 1) {
+            throw new IllegalArgumentException("loadFactor must be above 1");
+        }
+        this.nodes = nodes.stream().sorted(Comparator.comparing(Node::name)).toArray(Node[]::new);
+        this.loadFactor = loadFactor;
+        this.totalCapacity = nodes.stream().mapToDouble(Node::capacity).sum();
+
+        List<long[]> ring = new ArrayList<>();
+        for (int n = 0; n < this.nodes.length; n++) {
+            int vnodes = Math.max(1, (int) Math.round(this.nodes[n].capacity() * vnodesPerCapacity));
+            for (int v = 0; v < vnodes; v++) {
+                ring.add(new long[]{hash64(this.nodes[n].name() + "#" + v), n});
+            }
+        }
+        // Ties broken by node index, which follows the sorted names, to stay independent of the input order
+        ring.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[ring.size()];
+        this.pointOwners = new int[ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            points[i] = ring.get(i)[0];
+            pointOwners[i] = (int) ring.get(i)[1];
+        }
+    }
+
+    /**
+     * Assigns every item to a node. Items are placed in id order; an item too expensive to fit under any
+     * node's bound goes to the node with the lowest load relative to its capacity.
+     */
+    public Assignment assign(Collection<Item> items) {
+        Map<Long, String> owners = new HashMap<>(items.size() * 2);
+        Map<String, Double> loads = new HashMap<>();
+        for (Node node : nodes) {
+            loads.put(node.name(), 0.0);
+        }
+        if (nodes.length == 0) {
+            return new Assignment(owners, loads);
+        }
+        double totalCost = items.stream().mapToDouble(Item::cost).sum();
+        double[] limits = new double[nodes.length];
+        for (int n = 0; n < nodes.length; n++) {
+            limits[n] = loadFactor * totalCost * nodes[n].capacity() / totalCapacity;
+        }
+        double[] load = new double[nodes.length];
+
+        Item[] sorted = items.stream().sorted(Comparator.comparingLong(Item::id)).toArray(Item[]::new);
+        for (Item item : sorted) {
+            int owner = -1;
+            int start = Arrays.binarySearch(points, mix64(item.id()));
+            if (start < 0) start = -start - 1;
+            // Each node is visited once per lap however many virtual nodes it has
+            boolean[] tried = new boolean[nodes.length];
+            int triedCount = 0;
+            for (int i = 0; i < points.length && triedCount < nodes.length; i++) {
+                int candidate = pointOwners[(start + i) % points.length];
+                if (tried[candidate]) continue;
+                tried[candidate] = true;
+                triedCount++;
+                if (load[candidate] + item.cost() <= limits[candidate]) {
+                    owner = candidate;
+                    break;
+                }
+            }
+            if (owner < 0) {
+                owner = 0;
+                for (int n = 1; n < nodes.length; n++) {
+                    if (load[n] / nodes[n].capacity() < load[owner] / nodes[owner].capacity()) owner = n;
+                }
+            }
+            load[owner] += item.cost();
+            owners.put(item.id(), nodes[owner].name());
+        }
+        for (int n = 0; n < nodes.length; n++) {
+            loads.put(nodes[n].name(), load[n]);
+        }
+        return new Assignment(owners, loads);
+    }
+
+    // FNV-1a 64 followed by a murmur finalizer, as in BloomFilter
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+
+    private static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a4fe53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
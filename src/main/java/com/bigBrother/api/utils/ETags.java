@@ -0,0 +1,62 @@
+package com.bigBrother.api.utils;
+
+/**
+ * Entity versions as HTTP entity tags, for conditional updates with {@code If-Match}
+ * and conditional reads with {@code If-None-Match}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String of(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header lists the tag (weak comparison) or is {@code *}.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(of(tag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the expected version from an {@code If-Match} header.
+     *
+     * @return null if the header is absent or {@code *} (any version), otherwise the version;
+     *         a tag that is not one of ours yields -1, which matches no version.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bigBrother.api.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as a generic cell rate algorithm:
+ * the whole state is one "theoretical arrival time", updated with a single compare-and-set.
+ */
+public class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes one token if available.
+     *
+     * @param now Current time in nanoseconds.
+     * @param emissionInterval Nanoseconds between tokens (1 / rate).
+     * @param burst Bucket size.
+     * @return 0 if the token was granted, otherwise the nanoseconds until one is available.
+     */
+    public long tryAcquire(long now, long emissionInterval, int burst) {
+        long tolerance = emissionInterval * burst;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionInterval;
+            long waitNanos = next - now - tolerance;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket is idle once it has refilled completely; dropping it then loses no state.
+     */
+    public boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
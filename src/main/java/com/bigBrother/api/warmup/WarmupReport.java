@@ -0,0 +1,29 @@
+package com.bigBrother.api.warmup;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What the startup warm-up did and how long it took.
+ *
+ * @param steps Each warm-up step with its duration, in the order they ran.
+ * @param endpoints For each endpoint called over loopback, the latency of the first (cold) call next to the
+ *                  median of the last calls, which is what the first real client can expect.
+ */
+public record WarmupReport(State state, Instant startedAt, long durationMillis, List<Step> steps, List<EndpointTiming> endpoints) {
+
+    public enum State { PENDING, RUNNING, DONE, DISABLED }
+
+    /**
+     * @param error Why the step failed, null if it did not; a failed step never blocks startup.
+     */
+    public record Step(String name, long millis, String detail, String error) {
+    }
+
+    public record EndpointTiming(String path, int calls, double firstMillis, double warmMillis) {
+    }
+
+    static WarmupReport pending() {
+        return new WarmupReport(State.PENDING, null, 0, List.of(), List.of());
+    }
+}
@@ -0,0 +1,218 @@
+package com.bigBrother.api.warmup;
+
+import com.bigBrother.api.services.CameraCache;
+import com.bigBrother.api.services.JwtService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the replica up before it reports ready. Boot only turns the readiness probe to ACCEPTING_TRAFFIC
+ * once every runner has finished, so the load balancer keeps traffic away while this fills the connection
+ * pool, preloads the camera cache, runs the JWT and BCrypt code and calls the main read endpoints over
+ * loopback until the JIT has compiled the hot paths. A failing step is logged and skipped, it never keeps
+ * the replica from starting; the whole warm-up stops at {@code warmup.max-duration}.
+ */
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+    // Calls at the end of the loopback loop whose median is reported as the warm latency
+    private static final int WARM_SAMPLE = 10;
+
+    private final CameraCache cameraCache;
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final DataSource dataSource;
+    private final ApplicationContext applicationContext;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.rounds:30}")
+    private int rounds;
+
+    @Value("${warmup.max-duration:60s}")
+    private Duration maxDuration;
+
+    @Value("${internal.api.token}")
+    private String internalApiToken;
+
+    private volatile WarmupReport report = WarmupReport.pending();
+
+    public WarmupRunner(CameraCache cameraCache, JwtService jwtService, PasswordEncoder passwordEncoder,
+                        DataSource dataSource, ApplicationContext applicationContext, MeterRegistry meterRegistry) {
+        this.cameraCache = cameraCache;
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.dataSource = dataSource;
+        this.applicationContext = applicationContext;
+        TimeGauge.builder("warmup.duration", this, TimeUnit.MILLISECONDS, runner -> runner.report.durationMillis())
+                .register(meterRegistry);
+    }
+
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            report = new WarmupReport(WarmupReport.State.DISABLED, null, 0, List.of(), List.of());
+            return;
+        }
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        List<WarmupReport.Step> steps = new ArrayList<>();
+        List<WarmupReport.EndpointTiming> endpoints = new ArrayList<>();
+        report = new WarmupReport(WarmupReport.State.RUNNING, startedAt, 0, List.of(), List.of());
+
+        step(startedAt, steps, "connection-pool", this::primeConnectionPool);
+        step(startedAt, steps, "camera-cache", () -> cameraCache.preload() + " cameras");
+        step(startedAt, steps, "jwt", this::exerciseJwt);
+        step(startedAt, steps, "bcrypt", this::exerciseBcrypt);
+        step(startedAt, steps, "http", () -> callEndpoints(endpoints, deadline));
+
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        report = new WarmupReport(WarmupReport.State.DONE, startedAt, duration, List.copyOf(steps), List.copyOf(endpoints));
+        log.info("Warm-up finished in {} ms: {}", duration, steps.stream()
+                .map(step -> step.name() + " " + step.millis() + " ms" + (step.error() != null ? " (failed)" : ""))
+                .collect(Collectors.joining(", ")));
+        for (WarmupReport.EndpointTiming endpoint : endpoints) {
+            log.info("Warm-up {}: first call {} ms, warm {} ms", endpoint.path(),
+                    String.format("%.1f", endpoint.firstMillis()), String.format("%.1f", endpoint.warmMillis()));
+        }
+    }
+
+    private interface StepAction {
+        String run() throws Exception;
+    }
+
+    private void step(Instant startedAt, List<WarmupReport.Step> steps, String name, StepAction action) {
+        long start = System.nanoTime();
+        String detail = null;
+        String error = null;
+        try {
+            detail = action.run();
+        } catch (Exception e) {
+            error = e.toString();
+            log.warn("Warm-up step {} failed: {}", name, error);
+        }
+        steps.add(new WarmupReport.Step(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), detail, error));
+        report = new WarmupReport(WarmupReport.State.RUNNING, startedAt, 0, List.copyOf(steps), List.of());
+    }
+
+    // Opens the pool's maximum number of connections at once, so no request pays for a connection handshake
+    private String primeConnectionPool() throws SQLException {
+        int size = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 1;
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(5);
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        return size + " connections";
+    }
+
+    private String exerciseJwt() {
+        UserDetails user = User.withUsername("warmup-" + UUID.randomUUID()).password("").authorities(List.of()).build();
+        for (int i = 0; i < rounds; i++) {
+            Claims claims = jwtService.parseClaims(jwtService.generateToken(user.getUsername()));
+            if (!jwtService.validateClaims(claims, user)) {
+                throw new IllegalStateException("A freshly issued token did not validate");
+            }
+        }
+        return rounds + " tokens";
+    }
+
+    private String exerciseBcrypt() {
+        String hash = passwordEncoder.encode("warmup");
+        passwordEncoder.matches("warmup", hash);
+        passwordEncoder.matches("not-warmup", hash);
+        return "3 hashes";
+    }
+
+    /**
+     * Calls the endpoints recorders and clients hit most, through Tomcat and the whole filter chain,
+     * authenticated with the internal token.
+     */
+    private String callEndpoints(List<WarmupReport.EndpointTiming> endpoints, long deadline) throws Exception {
+        if (!(applicationContext instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null) {
+            return "no web server";
+        }
+        String base = "http://127.0.0.1:" + webContext.getWebServer().getPort();
+        CameraCache.Snapshot snapshot = cameraCache.snapshot();
+        List<String> paths = new ArrayList<>(List.of(
+                "/api/cameras",
+                "/api/cameras/changes?since=" + snapshot.changeSeq(),
+                "/api/cameras/search?name=cam"));
+        if (!snapshot.cameras().isEmpty()) {
+            long id = snapshot.cameras().get(0).getId();
+            paths.add("/api/cameras/" + id);
+            paths.add("/api/cameras?ids=" + id + "&fields=name,postUrl");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        double[][] millis = new double[paths.size()][rounds];
+        int completed = 0;
+        for (; completed < rounds && System.nanoTime() < deadline; completed++) {
+            for (int p = 0; p < paths.size(); p++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + paths.get(p)))
+                        .header("Authorization", "Bearer " + internalApiToken)
+                        .timeout(Duration.ofSeconds(10))
+                        .GET()
+                        .build();
+                long start = System.nanoTime();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                millis[p][completed] = (System.nanoTime() - start) / 1_000_000.0;
+                if (response.statusCode() >= 300) {
+                    throw new IllegalStateException("GET " + paths.get(p) + " returned " + response.statusCode());
+                }
+            }
+        }
+        for (int p = 0; p < paths.size() && completed > 0; p++) {
+            double[] warm = Arrays.copyOfRange(millis[p], Math.max(0, completed - WARM_SAMPLE), completed);
+            Arrays.sort(warm);
+            endpoints.add(new WarmupReport.EndpointTiming(paths.get(p), completed, millis[p][0], warm[warm.length / 2]));
+        }
+        return completed * paths.size() + " requests";
+    }
+}
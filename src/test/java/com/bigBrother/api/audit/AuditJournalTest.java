@@ -0,0 +1,153 @@
+package com.bigBrother.api.audit;
+
+import com.bigBrother.api.events.EntityChangedEvent.EntityType;
+import com.bigBrother.api.events.EntityChangedEvent.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        journal.stop();
+    }
+
+    @Test
+    void recordsSurviveARestartAndSeqsContinue() throws Exception {
+        journal = start(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+        for (int i = 1; i <= 10; i++) {
+            journal.append(record(i));
+        }
+        awaitRecords(10);
+        journal.stop();
+
+        journal = start(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+        journal.append(record(11));
+        List<AuditRecord> records = awaitRecords(11);
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).seq());
+            assertEquals(i + 1, records.get(i).entityId());
+        }
+        assertEquals(Map.of("name", "camera " + 5, "postUrl", "rtsp://cam/5"), records.get(4).changes());
+        assertEquals("alice", records.get(4).actor());
+    }
+
+    @Test
+    void replicaIdIsKeptWithTheJournal() {
+        journal = start(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+        String replicaId = journal.getReplicaId();
+        assertNotNull(replicaId);
+        journal.stop();
+
+        journal = start(DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+        assertEquals(replicaId, journal.getReplicaId());
+    }
+
+    @Test
+    void segmentsRotateBySizeAndOldOnesAreDeleted() throws Exception {
+        journal = start(DataSize.ofKilobytes(4), DataSize.ofKilobytes(16));
+        for (int i = 1; i <= 500; i++) {
+            journal.append(record(i));
+        }
+        List<AuditRecord> records = new ArrayList<>();
+        for (int attempt = 0; attempt < 200 && (records.isEmpty() || records.get(records.size() - 1).seq() < 500); attempt++) {
+            Thread.sleep(10);
+            records.clear();
+            journal.read(0, records::add);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(4, files.filter(file -> file.toString().endsWith(AuditSegment.SUFFIX)).count());
+        }
+        // Only the newest segments are left, and they hold consecutive records up to the last one
+        assertEquals(500, records.get(records.size() - 1).seq());
+        for (int i = 1; i < records.size(); i++) {
+            assertEquals(records.get(i - 1).seq() + 1, records.get(i).seq());
+        }
+        assertTrue(records.get(0).seq() > 1);
+
+        List<AuditRecord> after = new ArrayList<>();
+        journal.read(490, after::add);
+        assertEquals(10, after.size());
+        assertEquals(491, after.get(0).seq());
+    }
+
+    @Test
+    void tornRecordIsDroppedOnRestart() throws Exception {
+        journal = start(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        journal.append(record(1));
+        journal.append(record(2));
+        awaitRecords(2);
+        journal.stop();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(AuditSegment.SUFFIX)).findFirst().orElseThrow();
+        }
+        // Corrupt the payload of the second record, as if the crash happened halfway through writing it
+        List<Integer> frames = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            int position = 0;
+            for (int length = file.readInt(); length > 0; length = file.readInt()) {
+                frames.add(position);
+                position += 8 + length;
+                file.seek(position);
+            }
+            file.seek(frames.get(1) + 20);
+            file.write(0x55);
+        }
+
+        journal = start(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+        journal.append(record(3));
+        List<AuditRecord> records = awaitRecords(2);
+        assertEquals(List.of(1L, 2L), records.stream().map(AuditRecord::seq).toList());
+        assertEquals(3, records.get(1).entityId());
+    }
+
+    private AuditJournal start(DataSize segmentSize, DataSize maxTotalSize) {
+        AuditJournal started = new AuditJournal(new SimpleMeterRegistry(), 1024);
+        ReflectionTestUtils.setField(started, "enabled", true);
+        ReflectionTestUtils.setField(started, "directory", directory);
+        ReflectionTestUtils.setField(started, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(started, "maxTotalSize", maxTotalSize);
+        started.start();
+        return started;
+    }
+
+    private List<AuditRecord> awaitRecords(int count) throws IOException, InterruptedException {
+        List<AuditRecord> records = new ArrayList<>();
+        for (int attempt = 0; attempt < 200 && records.size() < count; attempt++) {
+            records.clear();
+            journal.read(0, records::add);
+            Thread.sleep(10);
+        }
+        assertEquals(count, records.size());
+        return records;
+    }
+
+    private static AuditRecord record(long cameraId) {
+        return new AuditRecord(0, System.currentTimeMillis(), "alice", EntityType.CAMERA, Operation.UPDATE, cameraId,
+                Map.of("name", "camera " + cameraId, "postUrl", "rtsp://cam/" + cameraId));
+    }
+}
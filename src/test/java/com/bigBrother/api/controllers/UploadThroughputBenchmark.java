@@ -0,0 +1,205 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.models.UserModel;
+import com.bigBrother.api.repositories.UserRepository;
+import com.bigBrother.api.services.JwtService;
+import com.bigBrother.api.support.FakeContentManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * End-to-end upload throughput, p99 latency and heap growth through {@code POST /api/upload/video}
+ * into a fake content-manager, across file sizes and numbers of concurrent clients.
+ * The fake limits every connection to 100 MB/s with 1 ms latency, roughly one LAN link.
+ * Results are printed and written to {@code target/benchmarks/upload-throughput.csv} for comparison between runs.
+ * Needs the same database as the other Spring tests. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ratelimit.enabled=false",
+        "upload.parallel.enabled=true",
+        "upload.parallel.threshold=64MB",
+        "upload.parallel.part-size=16MB"
+})
+class UploadThroughputBenchmark {
+
+    private static final long MB = 1024 * 1024;
+    private static final long[] SIZES = {MB, 32 * MB, 256 * MB};
+    private static final int[] CONCURRENCY = {1, 4, 8};
+    // Bytes uploaded per scenario, so small files get enough samples and big ones finish in reasonable time
+    private static final long BYTES_PER_SCENARIO = 1024 * MB;
+    private static final String BOUNDARY = "benchmark-boundary";
+
+    private static FakeContentManager contentManager;
+
+    @DynamicPropertySource
+    static void contentManager(DynamicPropertyRegistry registry) throws IOException {
+        contentManager = FakeContentManager.start()
+                .discardContent()
+                .latency(Duration.ofMillis(1))
+                .bandwidth(100 * MB);
+        registry.add("content-manager.url", contentManager::url);
+    }
+
+    @AfterAll
+    static void stopContentManager() {
+        contentManager.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private UserModel user;
+    private String token;
+
+    @BeforeEach
+    void createUser() {
+        user = new UserModel();
+        user.setUsername("benchmark-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setHashedPassword("-");
+        user.setDisabled(false);
+        user = userRepository.save(user);
+        token = jwtService.generateToken(user.getUsername());
+    }
+
+    @AfterEach
+    void deleteUser() {
+        userRepository.delete(user);
+    }
+
+    @Test
+    void uploadThroughput() throws Exception {
+        Path directory = Files.createDirectories(Path.of("target", "benchmarks"));
+        List<String> rows = new ArrayList<>();
+        rows.add("size_mb,clients,uploads,throughput_mb_s,p50_ms,p99_ms,heap_growth_mb");
+        System.out.printf("%8s %8s %8s %14s %9s %9s %12s%n", "size", "clients", "uploads", "MB/s", "p50 ms", "p99 ms", "heap +MB");
+
+        for (long size : SIZES) {
+            Path file = Files.createTempFile(directory, "upload-", ".bin");
+            try {
+                writeRandom(file, size);
+                upload(file); // warm-up
+                for (int clients : CONCURRENCY) {
+                    int uploads = (int) Math.max(clients, Math.min(64, BYTES_PER_SCENARIO / size));
+                    rows.add(runScenario(file, size, clients, uploads));
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.write(directory.resolve("upload-throughput.csv"), rows);
+    }
+
+    private String runScenario(Path file, long size, int clients, int uploads) throws Exception {
+        contentManager.reset();
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        ExecutorService sampler = Executors.newSingleThreadExecutor();
+        sampler.submit(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Long>> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < uploads; i++) {
+            latencies.add(pool.submit(() -> upload(file)));
+        }
+        List<Long> millis = new ArrayList<>();
+        for (Future<Long> latency : latencies) {
+            millis.add(latency.get());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        sampler.shutdownNow();
+
+        assertEquals((long) uploads * size, contentManager.bytesReceived());
+        Collections.sort(millis);
+        double throughput = uploads * size / (double) MB / seconds;
+        long p50 = millis.get((int) Math.ceil(millis.size() * 0.50) - 1);
+        long p99 = millis.get((int) Math.ceil(millis.size() * 0.99) - 1);
+        double heapGrowth = (peak.get() - baseline) / (double) MB;
+        System.out.printf("%6dMB %8d %8d %14.1f %9d %9d %12.1f%n", size / MB, clients, uploads, throughput, p50, p99, heapGrowth);
+        return String.format("%d,%d,%d,%.1f,%d,%d,%.1f", size / MB, clients, uploads, throughput, p50, p99, heapGrowth);
+    }
+
+    // Sends one multipart upload streamed from the file, returns its latency in milliseconds
+    private long upload(Path file) throws IOException, InterruptedException {
+        String preamble = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + UUID.randomUUID() + ".mp4\"\r\n"
+                + "Content-Type: video/mp4\r\n\r\n";
+        String epilogue = "\r\n--" + BOUNDARY + "--\r\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/upload/video"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.concat(
+                        HttpRequest.BodyPublishers.ofString(preamble),
+                        HttpRequest.BodyPublishers.ofFile(file),
+                        HttpRequest.BodyPublishers.ofString(epilogue)))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(200, response.statusCode(), response.body());
+        return millis;
+    }
+
+    private static void writeRandom(Path file, long size) throws IOException {
+        Random random = new Random(42);
+        byte[] chunk = new byte[(int) MB];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.bigBrother.api.controllers;
+
+import com.bigBrother.api.exceptions.ResourceNotFoundException;
+import com.bigBrother.api.models.UserPhotoModel;
+import com.bigBrother.api.services.UserPhotoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserControllerTest {
+
+    private static final byte[] IMAGE = {1, 2, 3};
+
+    private UserPhotoService userPhotoService;
+    private UserController controller;
+    private UserPhotoModel photo;
+
+    @BeforeEach
+    void setUp() {
+        userPhotoService = mock(UserPhotoService.class);
+        controller = new UserController();
+        ReflectionTestUtils.setField(controller, "userPhotoService", userPhotoService);
+        photo = new UserPhotoModel();
+        photo.setUserId(7L);
+        photo.setTag("abc");
+        photo.setContentType("image/png");
+        photo.setContent(IMAGE);
+        when(userPhotoService.findTag(7L)).thenReturn(Optional.of("abc"));
+        when(userPhotoService.find(7L)).thenReturn(Optional.of(photo));
+    }
+
+    @Test
+    void versionedPhotoIsCachedForGood() {
+        ResponseEntity<?> response = controller.getPhoto(7L, "abc", null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(IMAGE, (byte[]) response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+    }
+
+    @Test
+    void unversionedOrOutdatedPhotoMustBeRevalidated() {
+        assertTrue(controller.getPhoto(7L, null, null).getHeaders().getCacheControl().contains("no-cache"));
+        assertTrue(controller.getPhoto(7L, "old", null).getHeaders().getCacheControl().contains("no-cache"));
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304WithoutReadingThePhoto() {
+        ResponseEntity<?> response = controller.getPhoto(7L, null, "\"abc\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertTrue(response.getHeaders().getCacheControl().contains("no-cache"));
+        verify(userPhotoService, never()).find(anyLong());
+    }
+
+    @Test
+    void externalPhotoIsARedirect() {
+        photo.setContent(null);
+        photo.setExternalUrl("https://cdn.example.com/jane%20doe.jpg");
+
+        ResponseEntity<?> response = controller.getPhoto(7L, "abc", null);
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals(URI.create("https://cdn.example.com/jane%20doe.jpg"), response.getHeaders().getLocation());
+    }
+
+    @Test
+    void invalidStoredUrlIsNotFound() {
+        photo.setContent(null);
+        photo.setExternalUrl("https://cdn.example.com/jane doe.jpg");
+
+        assertThrows(ResourceNotFoundException.class, () -> controller.getPhoto(7L, "abc", null));
+    }
+}
@@ -0,0 +1,151 @@
+package com.bigBrother.api.converters;
+
+import com.bigBrother.api.dtos.CameraDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares payload size and encode/decode time of a 10k camera list in JSON, CBOR, Smile and protobuf.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CameraEncodingBenchmark {
+
+    private static final int CAMERAS = 10_000;
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 50;
+
+    private static final TypeReference<List<CameraDTO>> CAMERA_LIST = new TypeReference<>() { };
+
+    @Test
+    void compareEncodings() throws IOException {
+        List<CameraDTO> cameras = cameras();
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper cbor = new CBORMapper();
+        ObjectMapper smile = new SmileMapper();
+
+        System.out.printf("%-10s %12s %12s %12s%n", "format", "bytes", "encode ms", "decode ms");
+        report("json", measure(() -> json.writeValueAsBytes(cameras), bytes -> json.readValue(bytes, CAMERA_LIST)));
+        report("cbor", measure(() -> cbor.writeValueAsBytes(cameras), bytes -> cbor.readValue(bytes, CAMERA_LIST)));
+        report("smile", measure(() -> smile.writeValueAsBytes(cameras), bytes -> smile.readValue(bytes, CAMERA_LIST)));
+        report("protobuf", measure(() -> encodeProtobuf(cameras), CameraEncodingBenchmark::decodeProtobuf));
+    }
+
+    private static Result measure(Encoder encoder, Decoder decoder) throws IOException {
+        byte[] payload = encoder.encode();
+        assertEquals(CAMERAS, decoder.decode(payload).size());
+        for (int i = 0; i < WARMUP; i++) {
+            decoder.decode(encoder.encode());
+        }
+        long[] encodeNanos = new long[ITERATIONS];
+        long[] decodeNanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            byte[] bytes = encoder.encode();
+            encodeNanos[i] = System.nanoTime() - start;
+            start = System.nanoTime();
+            decoder.decode(bytes);
+            decodeNanos[i] = System.nanoTime() - start;
+        }
+        return new Result(payload.length, median(encodeNanos), median(decodeNanos));
+    }
+
+    private static void report(String format, Result result) {
+        System.out.printf("%-10s %12d %12.2f %12.2f%n", format, result.bytes(), result.encodeNanos() / 1e6, result.decodeNanos() / 1e6);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static byte[] encodeProtobuf(List<CameraDTO> cameras) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, 8192);
+        ProtobufDtoHttpMessageConverter.write(cameras, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Minimal reader for CameraList, equivalent to what generated code would do on the recorder side
+    private static List<CameraDTO> decodeProtobuf(byte[] bytes) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(bytes);
+        List<CameraDTO> cameras = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) != 1) {
+                in.skipField(tag);
+                continue;
+            }
+            int limit = in.pushLimit(in.readRawVarint32());
+            CameraDTO camera = new CameraDTO();
+            int field;
+            while ((field = in.readTag()) != 0) {
+                switch (WireFormat.getTagFieldNumber(field)) {
+                    case 1 -> camera.setId(in.readInt64());
+                    case 2 -> camera.setName(in.readString());
+                    case 3 -> camera.setDevice(in.readString());
+                    case 4 -> camera.setResolution(in.readString());
+                    case 5 -> camera.setFps(in.readString());
+                    case 6 -> camera.setPostUrl(in.readString());
+                    case 7 -> camera.setCodec(in.readString());
+                    case 8 -> camera.setPreset(in.readString());
+                    case 9 -> camera.setTune(in.readString());
+                    case 10 -> camera.setBuffer(in.readString());
+                    case 11 -> camera.setRotation(in.readString());
+                    default -> in.skipField(field);
+                }
+            }
+            in.popLimit(limit);
+            cameras.add(camera);
+        }
+        return cameras;
+    }
+
+    private static List<CameraDTO> cameras() {
+        List<CameraDTO> cameras = new ArrayList<>(CAMERAS);
+        for (int i = 1; i <= CAMERAS; i++) {
+            CameraDTO camera = new CameraDTO();
+            camera.setId((long) i);
+            camera.setName("Camera " + i);
+            camera.setDevice("/dev/video" + (i % 8));
+            camera.setResolution(i % 3 == 0 ? "1280x720" : "1920x1080");
+            camera.setFps(i % 2 == 0 ? "25" : "30");
+            camera.setPostUrl("http://recorder-" + (i % 16) + ":8000/upload/" + i);
+            camera.setCodec("h264");
+            camera.setPreset("ultrafast");
+            camera.setTune("zerolatency");
+            camera.setBuffer("1000");
+            camera.setRotation("0");
+            cameras.add(camera);
+        }
+        return cameras;
+    }
+
+    private interface Encoder {
+        byte[] encode() throws IOException;
+    }
+
+    private interface Decoder {
+        List<CameraDTO> decode(byte[] bytes) throws IOException;
+    }
+
+    private record Result(int bytes, long encodeNanos, long decodeNanos) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.bigBrother.api.converters;
+
+import com.bigBrother.api.dtos.AuditEntryDTO;
+import com.bigBrother.api.dtos.CameraDTO;
+import com.bigBrother.api.dtos.RecorderNodeDTO;
+import com.bigBrother.api.dtos.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProtobufDtoHttpMessageConverterTest {
+
+    private final ProtobufDtoHttpMessageConverter converter = new ProtobufDtoHttpMessageConverter();
+
+    @Test
+    void writesCamerasUsersAndTheirRows() {
+        assertTrue(converter.canWrite(CameraDTO.class, CameraDTO.class, ProtobufDtoHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(listOf(CameraDTO.class), ArrayList.class, ProtobufDtoHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(listOf(UserDTO.class), ArrayList.class, ProtobufDtoHttpMessageConverter.PROTOBUF));
+        assertTrue(converter.canWrite(ResolvableType.forClassWithGenerics(List.class,
+                ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class)).getType(), ArrayList.class,
+                ProtobufDtoHttpMessageConverter.PROTOBUF));
+    }
+
+    @Test
+    void refusesOtherLists() {
+        assertFalse(converter.canWrite(listOf(RecorderNodeDTO.class), ArrayList.class, ProtobufDtoHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(listOf(AuditEntryDTO.class), ArrayList.class, ProtobufDtoHttpMessageConverter.PROTOBUF));
+        assertFalse(converter.canWrite(RecorderNodeDTO.class, RecorderNodeDTO.class, ProtobufDtoHttpMessageConverter.PROTOBUF));
+    }
+
+    private static Type listOf(Class<?> element) {
+        return ResolvableType.forClassWithGenerics(List.class, element).getType();
+    }
+}
@@ -0,0 +1,390 @@
+package com.bigBrother.api.loadtest;
+
+import com.bigBrother.api.models.CameraModel;
+import com.bigBrother.api.models.UserModel;
+import com.bigBrother.api.repositories.CameraRepository;
+import com.bigBrother.api.repositories.UserRepository;
+import com.bigBrother.api.services.CameraChangeService;
+import com.bigBrother.api.services.JwtService;
+import com.bigBrother.api.support.FakeContentManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load test of the whole app through Tomcat, against an in-memory database (profile {@code loadtest}) and a fake
+ * content-manager. {@link #mixedWorkload} sends a weighted mix of logins, camera polling with a JWT, recorder reads
+ * with the internal token, camera writes and image uploads at {@code loadtest.rps} requests per second, with
+ * Poisson arrivals; {@link #replayTrace} replays a recorded trace at its original pace. Each writes throughput,
+ * latency percentiles and errors per endpoint to {@code target/loadtest}, to compare builds.
+ * Run with {@code mvn test -Ploadtest}, settings as system properties, e.g. {@code -Dloadtest.rps=300}.
+ */
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest {
+
+    private static final String USERNAME = "loadtest";
+    private static final String PASSWORD = "loadtest";
+    private static final String BOUNDARY = "loadtest-boundary";
+    private static final String[] RESOLUTIONS = {"640x480", "1280x720", "1920x1080", "2560x1440"};
+    private static final String[] PRESETS = {"ultrafast", "veryfast", "fast", "medium"};
+
+    private static FakeContentManager contentManager;
+
+    @DynamicPropertySource
+    static void contentManager(DynamicPropertyRegistry registry) throws IOException {
+        contentManager = FakeContentManager.start().discardContent().latency(Duration.ofMillis(1));
+        registry.add("content-manager.url", contentManager::url);
+    }
+
+    @AfterAll
+    static void stopContentManager() {
+        contentManager.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CameraRepository cameraRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CameraChangeService cameraChangeService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${internal.api.token}")
+    private String internalApiToken;
+
+    @Value("${loadtest.rps:100}")
+    private double rps;
+
+    @Value("${loadtest.duration:60s}")
+    private Duration duration;
+
+    @Value("${loadtest.warmup:15s}")
+    private Duration warmup;
+
+    // Relative weight of each kind of request
+    @Value("${loadtest.mix:login=1,poll=45,internal=30,write=20,upload=4}")
+    private String mix;
+
+    @Value("${loadtest.cameras:500}")
+    private int cameraCount;
+
+    @Value("${loadtest.upload-size:256KB}")
+    private DataSize uploadSize;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Value("${loadtest.max-in-flight:512}")
+    private int maxInFlight;
+
+    @Value("${loadtest.timeout:30s}")
+    private Duration timeout;
+
+    @Value("${loadtest.max-error-rate:0.01}")
+    private double maxErrorRate;
+
+    // NDJSON, one request per line, see replayTrace
+    @Value("${loadtest.trace:}")
+    private String trace;
+
+    @Value("${loadtest.replay-speed:1.0}")
+    private double replaySpeed;
+
+    private final List<Long> cameraIds = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong changeSeq = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private byte[] upload;
+    // Only the generator thread builds requests
+    private Random random;
+
+    @BeforeAll
+    void seed() throws IOException {
+        random = new Random(seed);
+        List<CameraModel> cameras = new ArrayList<>(cameraCount);
+        for (int i = 0; i < cameraCount; i++) {
+            CameraModel camera = new CameraModel();
+            camera.setName("seed-" + i);
+            camera.setDevice("/dev/video" + (i % 4));
+            camera.setResolution(RESOLUTIONS[random.nextInt(RESOLUTIONS.length)]);
+            camera.setFps(String.valueOf(10 + random.nextInt(21)));
+            camera.setPostUrl("http://recorder-" + (i % 16) + ":8080/ingest/" + i);
+            camera.setCodec("libx264");
+            camera.setPreset(PRESETS[random.nextInt(PRESETS.length)]);
+            cameras.add(camera);
+        }
+        cameraRepository.saveAll(cameras).forEach(camera -> cameraIds.add(camera.getId()));
+        changeSeq.set(cameraChangeService.currentSeq());
+
+        if (userRepository.findByUsername(USERNAME).isEmpty()) {
+            UserModel user = new UserModel();
+            user.setUsername(USERNAME);
+            user.setEmail(USERNAME + "@example.com");
+            user.setHashedPassword(passwordEncoder.encode(PASSWORD));
+            user.setDisabled(false);
+            userRepository.save(user);
+        }
+        upload = multipart(uploadSize.toBytes());
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        Map<String, Supplier<LoadRequest>> kinds = Map.of(
+                "login", this::login,
+                "poll", this::poll,
+                "internal", this::internalRead,
+                "write", this::write,
+                "upload", this::upload);
+        Map<Supplier<LoadRequest>, Double> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Supplier<LoadRequest> kind = kinds.get(parts[0].trim());
+            if (kind == null) {
+                throw new IllegalArgumentException("Unknown request kind in loadtest.mix: " + parts[0] + ", known: " + kinds.keySet());
+            }
+            weights.put(kind, Double.parseDouble(parts[1].trim()));
+        }
+        System.out.printf("Mixed workload: %s at %.0f req/s for %s after a %s warm-up, %d cameras%n", mix, rps, duration, warmup, cameraCount);
+
+        try (LoadGenerator generator = generator()) {
+            generator.run(poisson(weights, warmup, new Random(seed)));
+            LoadReport report = generator.run(poisson(weights, duration, new Random(seed + 1)));
+            report.write("mixed-workload");
+            assertTrue(report.errorRate() <= maxErrorRate, "error rate " + report.errorRate());
+        }
+    }
+
+    /**
+     * Replays {@code loadtest.trace}: one JSON object per line with {@code method}, {@code uri} and {@code startedAt}
+     * (epoch millis), as in {@code /actuator/requesttraces}, and optionally {@code query}, {@code auth}
+     * (none, jwt or internal; jwt by default) and {@code body}. Camera ids in paths are mapped onto the seeded
+     * cameras, the same recorded id always to the same camera; missing bodies of camera writes, logins and
+     * uploads are generated.
+     */
+    @Test
+    void replayTrace() throws Exception {
+        assumeTrue(!trace.isBlank(), "No loadtest.trace given");
+        List<JsonNode> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(trace))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) lines.add(objectMapper.readTree(line));
+            }
+        }
+        lines.sort(Comparator.comparingLong(line -> line.path("startedAt").asLong()));
+        System.out.printf("Replaying %d requests from %s at %.1fx%n", lines.size(), trace, replaySpeed);
+
+        long first = lines.isEmpty() ? 0 : lines.get(0).path("startedAt").asLong();
+        var iterator = lines.iterator();
+        LoadGenerator.Schedule schedule = () -> {
+            if (!iterator.hasNext()) return null;
+            JsonNode line = iterator.next();
+            long at = (long) ((line.path("startedAt").asLong() - first) * 1_000_000 / replaySpeed);
+            return new LoadGenerator.Scheduled(at, replayed(line));
+        };
+        try (LoadGenerator generator = generator()) {
+            LoadReport report = generator.run(schedule);
+            report.write("replay-" + Path.of(trace).getFileName().toString().replaceFirst("\\.[^.]*$", ""));
+            assertTrue(report.errorRate() <= maxErrorRate, "error rate " + report.errorRate());
+        }
+    }
+
+    private LoadGenerator generator() {
+        return new LoadGenerator("http://localhost:" + port, jwtService.generateToken(USERNAME), internalApiToken, maxInFlight, timeout);
+    }
+
+    // Requests of the given kinds in proportion to their weights, at exponentially distributed intervals
+    private LoadGenerator.Schedule poisson(Map<Supplier<LoadRequest>, Double> weights, Duration length, Random random) {
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        long end = length.toNanos();
+        double meanGap = 1e9 / rps;
+        long[] at = {0};
+        return () -> {
+            at[0] += (long) (-Math.log(1 - random.nextDouble()) * meanGap);
+            if (at[0] >= end) return null;
+            double pick = random.nextDouble() * total;
+            for (Map.Entry<Supplier<LoadRequest>, Double> kind : weights.entrySet()) {
+                pick -= kind.getValue();
+                if (pick < 0) return new LoadGenerator.Scheduled(at[0], kind.getKey().get());
+            }
+            return new LoadGenerator.Scheduled(at[0], weights.keySet().iterator().next().get());
+        };
+    }
+
+    private LoadRequest login() {
+        return body("POST", "/api/auth/login", LoadRequest.Auth.NONE, "POST /api/auth/login");
+    }
+
+    // A client following cameras: mostly single cameras, now and then the whole list
+    private LoadRequest poll() {
+        if (random.nextInt(5) == 0) {
+            return LoadRequest.get("GET /api/cameras", "/api/cameras", LoadRequest.Auth.JWT);
+        }
+        return LoadRequest.get("GET /api/cameras/{id}", "/api/cameras/" + randomCamera(), LoadRequest.Auth.JWT);
+    }
+
+    // A recorder: its cameras' fields, and the changes since its last poll
+    private LoadRequest internalRead() {
+        if (random.nextBoolean()) {
+            String ids = randomCamera() + "," + randomCamera() + "," + randomCamera() + "," + randomCamera();
+            return LoadRequest.get("GET /api/cameras?ids&fields", "/api/cameras?ids=" + ids + "&fields=name,postUrl,fps",
+                    LoadRequest.Auth.INTERNAL);
+        }
+        return LoadRequest.get("GET /api/cameras/changes", "/api/cameras/changes?since=" + changeSeq.get(), LoadRequest.Auth.INTERNAL)
+                .onSuccess(response -> {
+                    try {
+                        changeSeq.accumulateAndGet(objectMapper.readTree(response).path("seq").asLong(), Math::max);
+                    } catch (IOException e) {
+                        // Keep the last sequence
+                    }
+                });
+    }
+
+    // Creates, updates and deletes in a 2:2:1 ratio; only cameras this test created are deleted
+    private LoadRequest write() {
+        int pick = random.nextInt(5);
+        if (pick < 2) {
+            return body("PUT", "/api/cameras/" + randomCamera(), LoadRequest.Auth.JWT, "PUT /api/cameras/{id}");
+        }
+        Long id = pick == 4 ? createdIds.poll() : null;
+        if (id != null) {
+            return new LoadRequest("DELETE /api/cameras/{id}", "DELETE", "/api/cameras/" + id, LoadRequest.Auth.JWT, null, null, null);
+        }
+        return body("POST", "/api/cameras", LoadRequest.Auth.JWT, "POST /api/cameras");
+    }
+
+    private LoadRequest upload() {
+        return body("POST", "/api/upload/image", LoadRequest.Auth.JWT, "POST /api/upload/image");
+    }
+
+    private LoadRequest replayed(JsonNode line) {
+        String method = line.path("method").asText("GET").toUpperCase(Locale.ROOT);
+        String uri = line.path("uri").asText();
+        String query = line.path("query").asText("");
+        String path = remapCameraIds(uri) + (query.isEmpty() ? "" : "?" + query);
+        LoadRequest.Auth auth = line.hasNonNull("auth")
+                ? LoadRequest.Auth.valueOf(line.get("auth").asText().toUpperCase(Locale.ROOT))
+                : uri.startsWith("/api/auth/") || uri.startsWith("/actuator/health") || uri.startsWith("/.well-known/")
+                ? LoadRequest.Auth.NONE : LoadRequest.Auth.JWT;
+        String endpoint = LoadRequest.endpointOf(method, uri);
+        if (line.hasNonNull("body")) {
+            JsonNode body = line.get("body");
+            byte[] content = (body.isTextual() ? body.asText() : body.toString()).getBytes(StandardCharsets.UTF_8);
+            return new LoadRequest(endpoint, method, path, auth, line.path("contentType").asText("application/json"), content, null);
+        }
+        return body(method, path, auth, endpoint);
+    }
+
+    // A request with the body this harness would send to that path, if any
+    private LoadRequest body(String method, String path, LoadRequest.Auth auth, String endpoint) {
+        String contentType = null;
+        byte[] body = null;
+        if (method.equals("POST") && path.startsWith("/api/upload/")) {
+            contentType = "multipart/form-data; boundary=" + BOUNDARY;
+            body = upload;
+        } else if (method.equals("POST") && path.startsWith("/api/auth/login")) {
+            contentType = "application/json";
+            body = json(Map.of("username", USERNAME, "password", PASSWORD));
+        } else if (method.equals("POST") && path.equals("/api/cameras")) {
+            contentType = "application/json";
+            long n = created.incrementAndGet();
+            body = json(Map.of("name", "loadtest-" + n, "device", "/dev/video0", "resolution", "1280x720", "fps", "15",
+                    "postUrl", "http://recorder-0:8080/ingest/loadtest-" + n, "codec", "libx264", "preset", "veryfast"));
+            return new LoadRequest(endpoint, method, path, auth, contentType, body, null).onSuccess(response -> {
+                try {
+                    createdIds.add(objectMapper.readTree(response).path("id").asLong());
+                } catch (IOException e) {
+                    // Not deleted then
+                }
+            });
+        } else if (method.equals("PUT") && path.startsWith("/api/cameras/")) {
+            contentType = "application/json";
+            body = json(Map.of("fps", String.valueOf(10 + random.nextInt(21))));
+        }
+        return new LoadRequest(endpoint, method, path, auth, contentType, body, null);
+    }
+
+    private String remapCameraIds(String uri) {
+        String[] segments = uri.split("/", -1);
+        for (int i = 1; i < segments.length; i++) {
+            if (segments[i - 1].equals("cameras") && !segments[i].isEmpty() && segments[i].chars().allMatch(Character::isDigit)) {
+                segments[i] = String.valueOf(cameraIds.get(Math.floorMod(Long.parseLong(segments[i]) * 0x9E3779B97F4A7C15L, cameraIds.size())));
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private long randomCamera() {
+        return cameraIds.get(random.nextInt(cameraIds.size()));
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] multipart(long size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) size + 256);
+        out.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"loadtest.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        byte[] content = new byte[(int) size];
+        random.nextBytes(content);
+        out.write(content);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,122 @@
+package com.bigBrother.api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests go out when they are due whatever happened to the previous ones, the way
+ * independent clients behave, so a slow server gets a growing queue instead of a politely slower client.
+ * When {@code maxInFlight} requests are outstanding, further requests are not sent and count as {@code dropped}.
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    /**
+     * A request and when it is due.
+     *
+     * @param atNanos Due time, relative to the start of the run.
+     */
+    public record Scheduled(long atNanos, LoadRequest request) {
+    }
+
+    /**
+     * The requests of a run in due order; returns null once the run is over.
+     */
+    public interface Schedule {
+        Scheduled next();
+    }
+
+    private final String baseUrl;
+    private final String jwt;
+    private final String internalToken;
+    private final int maxInFlight;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient client;
+
+    public LoadGenerator(String baseUrl, String jwt, String internalToken, int maxInFlight, Duration timeout) {
+        this.baseUrl = baseUrl;
+        this.jwt = jwt;
+        this.internalToken = internalToken;
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Sends every scheduled request when it is due and waits for the outstanding ones.
+     */
+    public LoadReport run(Schedule schedule) throws InterruptedException {
+        LoadReport report = new LoadReport();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        Scheduled next;
+        while ((next = schedule.next()) != null) {
+            long due = start + next.atNanos();
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadRequest request = next.request();
+            if (!inFlight.tryAcquire()) {
+                report.record(request.endpoint(), System.nanoTime() - due, "dropped");
+                continue;
+            }
+            client.sendAsync(build(request), HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, failure) -> {
+                long latency = System.nanoTime() - due;
+                inFlight.release();
+                String error;
+                if (failure != null) {
+                    error = failure instanceof HttpTimeoutException || failure.getCause() instanceof HttpTimeoutException
+                            ? "timeout" : failure.getClass().getSimpleName();
+                } else if (response.statusCode() >= 400) {
+                    error = String.valueOf(response.statusCode());
+                } else {
+                    error = null;
+                    if (request.onSuccess() != null) {
+                        request.onSuccess().accept(response.body());
+                    }
+                }
+                report.record(request.endpoint(), latency, error);
+            });
+        }
+        // Outstanding requests end by the timeout at the latest
+        inFlight.tryAcquire(maxInFlight, timeout.toMillis() + 5000, TimeUnit.MILLISECONDS);
+        report.finish((System.nanoTime() - start) / 1e9);
+        return report;
+    }
+
+    private HttpRequest build(LoadRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.path())).timeout(timeout);
+        switch (request.auth()) {
+            case JWT -> builder.header("Authorization", "Bearer " + jwt);
+            case INTERNAL -> builder.header("Authorization", "Bearer " + internalToken);
+            case NONE -> {
+            }
+        }
+        if (request.contentType() != null) {
+            builder.header("Content-Type", request.contentType());
+        }
+        HttpRequest.BodyPublisher body = request.body() != null
+                ? HttpRequest.BodyPublishers.ofByteArray(request.body())
+                : HttpRequest.BodyPublishers.noBody();
+        return builder.method(request.method(), body).build();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,123 @@
+package com.bigBrother.api.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Latencies and errors per endpoint of one load test run. Latencies are measured from when a request was due,
+ * not from when it was sent, so a generator or server falling behind shows up in the percentiles.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile double seconds;
+
+    private static class EndpointStats {
+        private long[] nanos = new long[1024];
+        private int count;
+        private final Map<String, Integer> errors = new TreeMap<>();
+
+        synchronized void add(long latencyNanos, String error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (error != null) {
+                errors.merge(error, 1, Integer::sum);
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        synchronized int errorCount() {
+            return errors.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        synchronized String errorKinds() {
+            return errors.entrySet().stream().map(e -> e.getKey() + ":" + e.getValue()).collect(Collectors.joining(" "));
+        }
+    }
+
+    /**
+     * @param error What went wrong, e.g. the status code or {@code timeout}; null for a successful request.
+     */
+    public void record(String endpoint, long latencyNanos, String error) {
+        endpoints.computeIfAbsent(endpoint, e -> new EndpointStats()).add(latencyNanos, error);
+    }
+
+    void finish(double seconds) {
+        this.seconds = seconds;
+    }
+
+    public long requests() {
+        return endpoints.values().stream().mapToLong(stats -> stats.sorted().length).sum();
+    }
+
+    public double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : endpoints.values().stream().mapToLong(EndpointStats::errorCount).sum() / (double) requests;
+    }
+
+    /**
+     * Prints a table per endpoint and writes it as CSV to {@code target/loadtest/<name>.csv} for comparison between builds.
+     */
+    public void write(String name) throws IOException {
+        List<String> rows = new ArrayList<>();
+        rows.add("endpoint,requests,throughput_rps,errors,error_rate,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,error_kinds");
+        System.out.printf("%n%s, %.0f s%n%-44s %9s %9s %8s %9s %9s %9s %9s %9s  %s%n", name, seconds, "endpoint", "requests",
+                "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "error kinds");
+
+        EndpointStats total = new EndpointStats();
+        for (String endpoint : new TreeMap<>(endpoints).keySet()) {
+            EndpointStats stats = endpoints.get(endpoint);
+            rows.add(row(endpoint, stats));
+            for (long latency : stats.sorted()) {
+                total.add(latency, null);
+            }
+            stats.errors.forEach((error, count) -> total.errors.merge(error, count, Integer::sum));
+        }
+        rows.add(row("total", total));
+
+        Path directory = Files.createDirectories(Path.of("target", "loadtest"));
+        Files.write(directory.resolve(name + ".csv"), rows);
+    }
+
+    private String row(String endpoint, EndpointStats stats) {
+        long[] sorted = stats.sorted();
+        int errors = stats.errorCount();
+        double[] millis = new double[PERCENTILES.length + 1];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            millis[i] = percentile(sorted, PERCENTILES[i]) / 1e6;
+        }
+        millis[PERCENTILES.length] = sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6;
+        double throughput = seconds > 0 ? sorted.length / seconds : 0;
+        double errorRate = sorted.length == 0 ? 0 : errors / (double) sorted.length;
+        String errorKinds = stats.errorKinds();
+
+        System.out.printf("%-44s %9d %9.1f %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", endpoint, sorted.length, throughput,
+                errors, millis[0], millis[1], millis[2], millis[3], millis[4], errorKinds);
+        return String.format("\"%s\",%d,%.2f,%d,%.4f,%.2f,%.2f,%.2f,%.2f,%.2f,\"%s\"", endpoint, sorted.length, throughput,
+                errors, errorRate, millis[0], millis[1], millis[2], millis[3], millis[4], errorKinds);
+    }
+
+    // Nearest rank
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(sorted.length * percentile / 100);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+}
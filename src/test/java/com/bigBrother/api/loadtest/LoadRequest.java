@@ -0,0 +1,40 @@
+package com.bigBrother.api.loadtest;
+
+import java.util.function.Consumer;
+
+/**
+ * One request of a load test.
+ *
+ * @param endpoint Name the request is reported under, e.g. {@code GET /api/cameras/{id}}.
+ * @param body Request body, null for none.
+ * @param onSuccess Called with the response body of a successful request, null to discard it.
+ */
+public record LoadRequest(String endpoint, String method, String path, Auth auth, String contentType, byte[] body,
+                          Consumer<byte[]> onSuccess) {
+
+    public enum Auth {
+        NONE, JWT, INTERNAL
+    }
+
+    public static LoadRequest get(String endpoint, String path, Auth auth) {
+        return new LoadRequest(endpoint, "GET", path, auth, null, null, null);
+    }
+
+    public LoadRequest onSuccess(Consumer<byte[]> onSuccess) {
+        return new LoadRequest(endpoint, method, path, auth, contentType, body, onSuccess);
+    }
+
+    /**
+     * Reporting name of a path: numeric segments become {@code {id}} so requests to different cameras add up.
+     */
+    public static String endpointOf(String method, String path) {
+        int query = path.indexOf('?');
+        String[] segments = (query >= 0 ? path.substring(0, query) : path).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (!segments[i].isEmpty() && segments[i].chars().allMatch(Character::isDigit)) {
+                segments[i] = "{id}";
+            }
+        }
+        return method + " " + String.join("/", segments);
+    }
+}
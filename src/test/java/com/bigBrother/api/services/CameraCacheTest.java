@@ -0,0 +1,62 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.repositories.CameraRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CameraCacheTest {
+
+    private CameraCache cache;
+    private Map<Long, Long> missing;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        CameraRepository cameraRepository = mock(CameraRepository.class);
+        when(cameraRepository.findById(anyLong())).thenReturn(Optional.empty());
+        cache = new CameraCache(cameraRepository, mock(CameraChangeService.class));
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cache, "negativeTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "negativeMaxEntries", 3);
+        missing = (Map<Long, Long>) ReflectionTestUtils.getField(cache, "missing");
+    }
+
+    @Test
+    void expiredMissesArePurged() {
+        cache.findById(1L);
+        cache.findById(2L);
+        missing.put(1L, System.nanoTime() - Duration.ofMinutes(2).toNanos());
+
+        cache.purgeMissing();
+
+        assertEquals(1, missing.size());
+        assertTrue(missing.containsKey(2L));
+    }
+
+    @Test
+    void fullCacheDropsExpiredMissesBeforeLiveOnes() {
+        cache.findById(1L);
+        cache.findById(2L);
+        cache.findById(3L);
+        missing.put(1L, System.nanoTime() - Duration.ofMinutes(2).toNanos());
+        ((AtomicLong) ReflectionTestUtils.getField(cache, "lastMissingPurge")).set(System.nanoTime() - Duration.ofSeconds(2).toNanos());
+
+        cache.findById(4L);
+
+        assertEquals(3, missing.size());
+        assertTrue(missing.keySet().containsAll(List.of(2L, 3L, 4L)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.TelemetrySampleDTO;
+import com.bigBrother.api.dtos.TelemetryWindowDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CameraTelemetryBufferTest {
+
+    @Test
+    void unpublishedSampleIsRolledUpInTheNextWindow() {
+        CameraTelemetryBuffer buffer = new CameraTelemetryBuffer(8);
+        buffer.add(1, sample(10));
+        // A writer claimed seq 1 and has not published it yet
+        long claimed = ((AtomicLong) ReflectionTestUtils.getField(buffer, "cursor")).getAndIncrement();
+        buffer.add(3, sample(30));
+
+        assertEquals(1, buffer.rollUp(Instant.EPOCH, 10).getSamples());
+
+        ((double[]) ReflectionTestUtils.getField(buffer, "fps"))[(int) claimed] = 20;
+        ((AtomicLongArray) ReflectionTestUtils.getField(buffer, "sequences")).set((int) claimed, claimed);
+        TelemetryWindowDTO next = buffer.rollUp(Instant.EPOCH, 10);
+        assertEquals(2, next.getSamples());
+        assertEquals(20, next.getFpsMin());
+        assertEquals(30, next.getFpsMax());
+        assertNull(buffer.rollUp(Instant.EPOCH, 10));
+    }
+
+    @Test
+    void overwrittenSamplesAreSkipped() {
+        CameraTelemetryBuffer buffer = new CameraTelemetryBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i, sample(i));
+        }
+        TelemetryWindowDTO window = buffer.rollUp(Instant.EPOCH, 10);
+        assertEquals(4, window.getSamples());
+        assertEquals(6, window.getFpsMin());
+    }
+
+    private static TelemetrySampleDTO sample(double fps) {
+        TelemetrySampleDTO sample = new TelemetrySampleDTO();
+        sample.setFps(fps);
+        return sample;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.UploadPartProgressDTO;
+import com.bigBrother.api.dtos.UploadProgressDTO;
+import com.bigBrother.api.support.FakeContentManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends files through a fake content-manager that implements the part protocol and reassembles the parts.
+ */
+class ContentManagerClientTest {
+
+    private FakeContentManager contentManager;
+    private UploadProgressRegistry registry;
+    private ContentManagerClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        contentManager = FakeContentManager.start();
+        registry = new UploadProgressRegistry();
+        client = new ContentManagerClient(registry, new ObjectMapper());
+        ReflectionTestUtils.setField(client, "baseUrl", contentManager.url());
+        ReflectionTestUtils.setField(client, "parallelEnabled", true);
+        ReflectionTestUtils.setField(client, "parallelThreshold", DataSize.ofKilobytes(256));
+        ReflectionTestUtils.setField(client, "partSize", DataSize.ofKilobytes(64));
+        ReflectionTestUtils.setField(client, "minConnections", 2);
+        ReflectionTestUtils.setField(client, "initialConnections", 4);
+        ReflectionTestUtils.setField(client, "maxConnections", 8);
+        ReflectionTestUtils.setField(client, "maxAttempts", 3);
+        ReflectionTestUtils.setField(client, "threads", 8);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        contentManager.close();
+    }
+
+    @Test
+    void largeFileIsSentInPartsAndReassembled() throws Exception {
+        byte[] content = randomBytes(1_000_000);
+        contentManager.failNext(1);
+
+        client.upload("videos", "cam 1.mp4", "video/mp4", content.length, new ByteArrayResource(content), "alice", "u1");
+
+        assertArrayEquals(content, contentManager.file("/uploads/videos/cam 1.mp4"));
+        UploadProgressDTO progress = registry.find("alice", "u1").orElseThrow();
+        assertEquals("COMPLETED", progress.getStatus());
+        assertEquals(16, progress.getParts().size());
+        assertEquals(content.length, progress.getSentBytes());
+        assertTrue(progress.getParts().stream().allMatch(part -> part.getStatus().equals("DONE")));
+        // The injected failure was retried (stale pooled connections may add more retries)
+        assertTrue(progress.getParts().stream().mapToInt(UploadPartProgressDTO::getAttempts).sum() >= 17);
+    }
+
+    @Test
+    void smallFileIsSentInOnePut() throws Exception {
+        byte[] content = randomBytes(10_000);
+
+        client.upload("images", "a.jpg", "image/jpeg", content.length, new ByteArrayResource(content), "alice", "u2");
+
+        assertArrayEquals(content, contentManager.file("/uploads/images/a.jpg"));
+        assertEquals(1, registry.find("alice", "u2").orElseThrow().getParts().size());
+    }
+
+    @Test
+    void uploadIsAbortedWhenAPartKeepsFailing() {
+        byte[] content = randomBytes(1_000_000);
+        contentManager.failureRate(1.0);
+
+        assertThrows(IOException.class,
+                () -> client.upload("videos", "b.mp4", "video/mp4", content.length, new ByteArrayResource(content), "alice", "u3"));
+
+        assertEquals("FAILED", registry.find("alice", "u3").orElseThrow().getStatus());
+        assertEquals(1, contentManager.aborts());
+        assertEquals(0, contentManager.fileCount());
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
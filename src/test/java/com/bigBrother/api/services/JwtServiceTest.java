@@ -0,0 +1,80 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.repositories.SigningKeyRepository;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tokens the filter may receive that were not issued by the current key set must fail as invalid tokens,
+ * which the filter lets through unauthenticated, never with anything it would turn into a 500.
+ */
+class JwtServiceTest {
+
+    private KeyPair keyPair;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        SigningKeyService signingKeyService = mock(SigningKeyService.class);
+        when(signingKeyService.publicKey("current")).thenReturn(keyPair.getPublic());
+        jwtService = new JwtService(signingKeyService);
+        jwtService.init();
+    }
+
+    @Test
+    void tokenWithKnownKidIsAccepted() {
+        String token = Jwts.builder().setHeaderParam(JwsHeader.KEY_ID, "current").setSubject("alice")
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256).compact();
+        assertEquals("alice", jwtService.parseClaims(token).getSubject());
+    }
+
+    @Test
+    void tokenWithoutKidIsRejectedAsInvalid() {
+        String token = Jwts.builder().setSubject("alice").signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256).compact();
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.parseClaims(token));
+    }
+
+    @Test
+    void tokenWithUnknownKidIsRejectedAsInvalid() {
+        String token = Jwts.builder().setHeaderParam(JwsHeader.KEY_ID, "retired").setSubject("alice")
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256).compact();
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.parseClaims(token));
+    }
+
+    @Test
+    void legacyHs256TokenIsRejectedAsInvalid() {
+        byte[] secret = "a legacy shared secret of at least 256 bits".getBytes(StandardCharsets.UTF_8);
+        String withoutKid = Jwts.builder().setSubject("alice").signWith(Keys.hmacShaKeyFor(secret), SignatureAlgorithm.HS256).compact();
+        String withKid = Jwts.builder().setHeaderParam(JwsHeader.KEY_ID, "current").setSubject("alice")
+                .signWith(Keys.hmacShaKeyFor(secret), SignatureAlgorithm.HS256).compact();
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.parseClaims(withoutKid));
+        assertThrows(UnsupportedJwtException.class, () -> jwtService.parseClaims(withKid));
+    }
+
+    @Test
+    void missingKidHasNoPublicKey() {
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        when(repository.findAllByOrderByActivatesAtAsc()).thenReturn(List.of());
+        assertNull(new SigningKeyService(repository).publicKey(null));
+    }
+}
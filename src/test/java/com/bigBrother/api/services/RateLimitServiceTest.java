@@ -0,0 +1,53 @@
+package com.bigBrother.api.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitServiceTest {
+
+    private static final RateLimitService.Policy AUTH = new RateLimitService.Policy("auth", 0.2, 2);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new RateLimitService(meterRegistry);
+        ReflectionTestUtils.setField(service, "maxBuckets", 2);
+    }
+
+    @Test
+    void clientsPastTheCapDoNotShareABucket() {
+        exhaust("a");
+        exhaust("b");
+
+        // Neither the sprayed clients nor a legitimate one lock each other out
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, service.tryAcquire(AUTH, "sprayed-" + i));
+        }
+        assertEquals(0, service.tryAcquire(AUTH, "legitimate"));
+        assertEquals(11, meterRegistry.counter("api.ratelimit.overflow", "policy", "auth").count());
+        assertTrue(service.tryAcquire(AUTH, "a") > 0);
+    }
+
+    @Test
+    void idleBucketsAreEvictedToMakeRoom() {
+        RateLimitService.Policy fast = new RateLimitService.Policy("fast", 1e9, 1);
+        service.tryAcquire(fast, "a");
+        service.tryAcquire(fast, "b");
+
+        service.tryAcquire(fast, "c");
+        assertEquals(0, meterRegistry.find("api.ratelimit.overflow").counters().size());
+    }
+
+    private void exhaust(String key) {
+        while (service.tryAcquire(AUTH, key) == 0) {
+        }
+    }
+}
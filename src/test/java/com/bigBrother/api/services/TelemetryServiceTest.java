@@ -0,0 +1,72 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.dtos.TelemetrySampleDTO;
+import com.bigBrother.api.repositories.CameraRepository;
+import com.bigBrother.api.repositories.CameraTelemetryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TelemetryServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private TelemetryService service;
+
+    @BeforeEach
+    void setUp() {
+        CameraRepository cameraRepository = mock(CameraRepository.class);
+        when(cameraRepository.findById(anyLong())).thenReturn(Optional.empty());
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TelemetryService(mock(CameraTelemetryRepository.class), cameraRepository, jdbcTemplate,
+                mock(PlatformTransactionManager.class), meterRegistry);
+        ReflectionTestUtils.setField(service, "bufferCapacity", 16);
+        ReflectionTestUtils.setField(service, "windowSeconds", 10);
+        ReflectionTestUtils.setField(service, "maxCameras", 10);
+        ReflectionTestUtils.setField(service, "maxPendingWindows", 10);
+    }
+
+    @Test
+    void windowsAreKeptWhenTheWriteFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[0][]);
+        service.record(List.of(sample(1), sample(2)));
+        service.rollUp();
+
+        service.flush();
+        assertEquals(2, service.series(1L, Instant.EPOCH, Instant.now()).getWindows().size()
+                + service.series(2L, Instant.EPOCH, Instant.now()).getWindows().size());
+        assertEquals(0, meterRegistry.counter("telemetry.windows.dropped").count());
+
+        service.flush();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(List.class), anyInt(), any());
+        assertEquals(0, service.series(1L, Instant.EPOCH, Instant.now()).getWindows().size());
+    }
+
+    private static TelemetrySampleDTO sample(long cameraId) {
+        TelemetrySampleDTO sample = new TelemetrySampleDTO();
+        sample.setCameraId(cameraId);
+        sample.setFps(25);
+        return sample;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.exceptions.UploadInProgressException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UploadProgressRegistryTest {
+
+    private final UploadProgressRegistry registry = new UploadProgressRegistry();
+
+    @Test
+    void uploadIdsAreScopedToTheirOwner() {
+        registry.start("alice", "u1", "a.mp4", 100, 100);
+        registry.start("bob", "u1", "b.mp4", 100, 100);
+
+        assertEquals("a.mp4", registry.find("alice", "u1").orElseThrow().getFilename());
+        assertEquals("b.mp4", registry.find("bob", "u1").orElseThrow().getFilename());
+        assertTrue(registry.find("carol", "u1").isEmpty());
+    }
+
+    @Test
+    void idInFlightCannotBeReusedUntilItsUploadFinished() {
+        UploadProgress first = registry.start("alice", "u1", "a.mp4", 100, 100);
+        assertThrows(UploadInProgressException.class, () -> registry.start("alice", "u1", "b.mp4", 100, 100));
+        assertEquals("a.mp4", registry.find("alice", "u1").orElseThrow().getFilename());
+
+        first.finish(null);
+        assertNotSame(first, registry.start("alice", "u1", "b.mp4", 100, 100));
+    }
+}
@@ -0,0 +1,84 @@
+package com.bigBrother.api.services;
+
+import com.bigBrother.api.models.UserModel;
+import com.bigBrother.api.models.UserPhotoModel;
+import com.bigBrother.api.repositories.UserPhotoRepository;
+import com.bigBrother.api.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserPhotoServiceTest {
+
+    private static final byte[] IMAGE = {(byte) 0x89, 'P', 'N', 'G', 0, 1, 2};
+
+    private UserPhotoRepository userPhotoRepository;
+    private JdbcTemplate jdbcTemplate;
+    private UserPhotoService service;
+
+    @BeforeEach
+    void setUp() {
+        userPhotoRepository = mock(UserPhotoRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> {
+            UserModel user = new UserModel();
+            user.setId(invocation.getArgument(0));
+            return Optional.of(user);
+        });
+        when(userPhotoRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        service = new UserPhotoService(userPhotoRepository, userRepository, jdbcTemplate);
+    }
+
+    @Test
+    void legacyPhotosAreDecodedOrKeptAsValidUrls() {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(
+                Map.of("id", 1L, "photo", "data:image/png;base64," + Base64.getEncoder().encodeToString(IMAGE)),
+                Map.of("id", 2L, "photo", "data:text/plain,hello%20world"),
+                Map.of("id", 3L, "photo", "https://cdn.example.com/photos/jane doe.jpg"),
+                Map.of("id", 4L, "photo", "javascript:alert(1)")));
+
+        service.migrateLegacyPhotos();
+
+        ArgumentCaptor<UserPhotoModel> saved = ArgumentCaptor.forClass(UserPhotoModel.class);
+        verify(userPhotoRepository, times(3)).save(saved.capture());
+        List<UserPhotoModel> photos = saved.getAllValues();
+        assertEquals("image/png", photos.get(0).getContentType());
+        assertArrayEquals(IMAGE, photos.get(0).getContent());
+        assertEquals("text/plain", photos.get(1).getContentType());
+        assertArrayEquals("hello world".getBytes(StandardCharsets.ISO_8859_1), photos.get(1).getContent());
+        assertEquals("https://cdn.example.com/photos/jane%20doe.jpg", photos.get(2).getExternalUrl());
+        // The unusable value stays in the old column
+        verify(jdbcTemplate, never()).update(anyString(), eq(4L));
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Long.class));
+    }
+
+    @Test
+    void redirectUrlsMustBeWebUrlsOrAbsolutePaths() {
+        assertEquals("/static/a%20b.png", UserPhotoService.redirectUrl("/static/a b.png"));
+        assertEquals("https://example.com/a.png?x=1", UserPhotoService.redirectUrl("https://example.com/a.png?x=1"));
+        assertThrows(IllegalArgumentException.class, () -> UserPhotoService.redirectUrl("photo.png"));
+        assertThrows(IllegalArgumentException.class, () -> UserPhotoService.redirectUrl("ftp://example.com/a.png"));
+    }
+}
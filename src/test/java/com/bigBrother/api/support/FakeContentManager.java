@@ -0,0 +1,291 @@
+package com.bigBrother.api.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for content-manager, speaking both the single PUT and the part upload protocol
+ * (see {@code ContentManagerClient}). Latency, per-connection bandwidth and failures can be injected,
+ * and with {@link #discardContent()} only sizes are kept so multi-GB benchmarks do not fill the heap.
+ */
+public class FakeContentManager implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> parts = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, Long>> partSizes = new ConcurrentHashMap<>();
+    private final AtomicInteger uploadIds = new AtomicInteger();
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger aborts = new AtomicInteger();
+    private final AtomicInteger failNext = new AtomicInteger();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile long bytesPerSecond;
+    private volatile double failureRate;
+    private volatile boolean keepContent = true;
+
+    private FakeContentManager() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        server.createContext("/uploads/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static FakeContentManager start() throws IOException {
+        return new FakeContentManager();
+    }
+
+    /**
+     * Base URL to use as {@code content-manager.url}.
+     */
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Delay added before every response.
+     */
+    public FakeContentManager latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Caps how fast each request body is read, per connection; 0 for unlimited.
+     */
+    public FakeContentManager bandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Fails this fraction of uploads (single PUTs and parts) with a 500, after reading the body.
+     */
+    public FakeContentManager failureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    /**
+     * Fails the next {@code count} uploads (single PUTs and parts) with a 500.
+     */
+    public FakeContentManager failNext(int count) {
+        failNext.set(count);
+        return this;
+    }
+
+    /**
+     * Keeps only the sizes of what is uploaded.
+     */
+    public FakeContentManager discardContent() {
+        this.keepContent = false;
+        return this;
+    }
+
+    /**
+     * Content stored under a path such as {@code /uploads/videos/a.mp4}, or null (always null when content is discarded).
+     */
+    public byte[] file(String path) {
+        return files.get(path);
+    }
+
+    public Long size(String path) {
+        return sizes.get(path);
+    }
+
+    public int fileCount() {
+        return sizes.size();
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int failures() {
+        return failures.get();
+    }
+
+    public int aborts() {
+        return aborts.get();
+    }
+
+    public void reset() {
+        files.clear();
+        sizes.clear();
+        parts.clear();
+        partSizes.clear();
+        bytesReceived.set(0);
+        requests.set(0);
+        failures.set(0);
+        aborts.set(0);
+        failNext.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> put(exchange, path, query);
+                case "POST" -> post(exchange, path, query);
+                case "DELETE" -> {
+                    parts.remove(query.get("uploadId"));
+                    partSizes.remove(query.get("uploadId"));
+                    aborts.incrementAndGet();
+                    respond(exchange, 204, null);
+                }
+                default -> respond(exchange, 405, null);
+            }
+        }
+    }
+
+    private void put(HttpExchange exchange, String path, Map<String, String> query) throws IOException {
+        ByteArrayOutputStream content = keepContent ? new ByteArrayOutputStream() : null;
+        long size = read(exchange.getRequestBody(), content);
+        if (shouldFail()) {
+            failures.incrementAndGet();
+            respond(exchange, 500, "injected failure");
+            return;
+        }
+        String partNumber = query.get("partNumber");
+        if (partNumber != null) {
+            String uploadId = query.get("uploadId");
+            Map<Integer, Long> uploadSizes = partSizes.get(uploadId);
+            if (uploadSizes == null) {
+                respond(exchange, 404, "unknown upload");
+                return;
+            }
+            uploadSizes.put(Integer.parseInt(partNumber), size);
+            if (content != null) {
+                parts.get(uploadId).put(Integer.parseInt(partNumber), content.toByteArray());
+            }
+            exchange.getResponseHeaders().add("ETag", "\"" + uploadId + "-" + partNumber + "\"");
+        } else {
+            sizes.put(path, size);
+            if (content != null) files.put(path, content.toByteArray());
+        }
+        respond(exchange, 200, null);
+    }
+
+    private void post(HttpExchange exchange, String path, Map<String, String> query) throws IOException {
+        if (query.containsKey("uploads")) {
+            exchange.getRequestBody().readAllBytes();
+            String uploadId = "mp-" + uploadIds.incrementAndGet();
+            parts.put(uploadId, new ConcurrentHashMap<>());
+            partSizes.put(uploadId, new ConcurrentHashMap<>());
+            respond(exchange, 200, uploadId);
+            return;
+        }
+        String uploadId = query.get("uploadId");
+        List<Map<String, Object>> completed = MAPPER.readValue(exchange.getRequestBody(), new TypeReference<>() { });
+        Map<Integer, Long> uploadSizes = partSizes.remove(uploadId);
+        Map<Integer, byte[]> uploadParts = parts.remove(uploadId);
+        if (uploadSizes == null) {
+            respond(exchange, 404, "unknown upload");
+            return;
+        }
+        long size = 0;
+        ByteArrayOutputStream assembled = new ByteArrayOutputStream();
+        for (Map<String, Object> part : completed) {
+            Integer partNumber = (Integer) part.get("partNumber");
+            if (!uploadSizes.containsKey(partNumber)) {
+                respond(exchange, 400, "missing part " + partNumber);
+                return;
+            }
+            size += uploadSizes.get(partNumber);
+            if (keepContent) assembled.write(uploadParts.get(partNumber));
+        }
+        sizes.put(path, size);
+        if (keepContent) files.put(path, assembled.toByteArray());
+        respond(exchange, 200, null);
+    }
+
+    private boolean shouldFail() {
+        if (failNext.getAndUpdate(n -> Math.max(0, n - 1)) > 0) return true;
+        return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    // Reads the whole body, paced to the bandwidth limit
+    private long read(InputStream in, OutputStream content) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        long start = System.nanoTime();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            bytesReceived.addAndGet(read);
+            if (content != null) content.write(buffer, 0, read);
+            long limit = bytesPerSecond;
+            if (limit > 0) {
+                long due = start + total * 1_000_000_000L / limit;
+                long wait = due - System.nanoTime();
+                if (wait > 0) sleep(Duration.ofNanos(wait));
+            }
+        }
+        return total;
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (!latency.isZero()) sleep(latency);
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                String[] keyValue = parameter.split("=", 2);
+                query.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+            }
+        }
+        return query;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis(), (int) (duration.toNanos() % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bigBrother.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long PART_BYTES = 16 << 20;
+    // Each connection moves 10 MB/s until the link saturates at 4 connections
+    private static final double BYTES_PER_NANO_PER_CONNECTION = 0.01;
+    private static final int SATURATION = 4;
+
+    @Test
+    void settlesNearTheConcurrencyThatSaturatesTheLink() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 32, 0);
+        long now = 0;
+        for (int round = 0; round < 100; round++) {
+            now = runRound(limit, now);
+        }
+        assertTrue(limit.getLimit() >= SATURATION && limit.getLimit() <= SATURATION + 1, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void failureHalvesTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 8, 16, 0);
+        limit.acquire();
+        limit.release(0, 1, false);
+        assertEquals(4, limit.getLimit());
+        limit.backOff();
+        limit.backOff();
+        assertEquals(2, limit.getLimit());
+    }
+
+    // All slots start together and finish together; the link is shared fairly
+    private static long runRound(AdaptiveConcurrencyLimit limit, long start) throws InterruptedException {
+        int concurrency = limit.getLimit();
+        double aggregate = Math.min(concurrency, SATURATION) * BYTES_PER_NANO_PER_CONNECTION;
+        long end = start + (long) (concurrency * PART_BYTES / aggregate);
+        for (int i = 0; i < concurrency; i++) {
+            limit.acquire();
+        }
+        for (int i = 0; i < concurrency; i++) {
+            limit.release(PART_BYTES, end, true);
+        }
+        return end;
+    }
+}
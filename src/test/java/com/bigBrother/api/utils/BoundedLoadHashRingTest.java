@@ -0,0 +1,79 @@
+package com.bigBrother.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedLoadHashRingTest {
+
+    private static final int VNODES = 100;
+    private static final double LOAD_FACTOR = 1.25;
+
+    @Test
+    void addingOrRemovingANodeMovesFewItems() {
+        List<BoundedLoadHashRing.Item> items = new ArrayList<>();
+        Random random = new Random(42);
+        double[] costs = {0.3, 1.0, 1.0, 2.0, 4.0};
+        for (long id = 1; id <= 2000; id++) {
+            items.add(new BoundedLoadHashRing.Item(id, costs[random.nextInt(costs.length)]));
+        }
+        List<BoundedLoadHashRing.Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            nodes.add(new BoundedLoadHashRing.Node("recorder-" + i, i < 2 ? 2.0 : 1.0));
+        }
+        BoundedLoadHashRing.Assignment before = new BoundedLoadHashRing(nodes, VNODES, LOAD_FACTOR).assign(items);
+
+        // A node joins with a tenth of the capacity: ideally a tenth of the items move, all to it
+        List<BoundedLoadHashRing.Node> grown = new ArrayList<>(nodes);
+        grown.add(new BoundedLoadHashRing.Node("recorder-new", 1.0));
+        BoundedLoadHashRing.Assignment after = new BoundedLoadHashRing(grown, VNODES, LOAD_FACTOR).assign(items);
+        int moved = moved(before.owners(), after.owners());
+        int movedElsewhere = moved - (int) after.owners().values().stream().filter("recorder-new"::equals).count();
+        assertTrue(moved < items.size() * 0.15, "moved " + moved);
+        assertTrue(movedElsewhere < items.size() * 0.05, "moved between old nodes " + movedElsewhere);
+
+        // A node leaves: its items move, the others mostly stay
+        List<BoundedLoadHashRing.Node> shrunk = new ArrayList<>(nodes.subList(1, nodes.size()));
+        BoundedLoadHashRing.Assignment without = new BoundedLoadHashRing(shrunk, VNODES, LOAD_FACTOR).assign(items);
+        long orphaned = before.owners().values().stream().filter("recorder-0"::equals).count();
+        int movedWithout = moved(before.owners(), without.owners());
+        assertTrue(movedWithout - orphaned < items.size() * 0.05, "moved " + movedWithout + ", orphaned " + orphaned);
+
+        // Nobody goes over the bound
+        double total = items.stream().mapToDouble(BoundedLoadHashRing.Item::cost).sum();
+        for (BoundedLoadHashRing.Node node : grown) {
+            double fairShare = total * node.capacity() / grown.stream().mapToDouble(BoundedLoadHashRing.Node::capacity).sum();
+            assertTrue(after.loads().get(node.name()) <= fairShare * LOAD_FACTOR, node.name() + " overloaded");
+        }
+    }
+
+    @Test
+    void assignmentDoesNotDependOnInputOrder() {
+        List<BoundedLoadHashRing.Item> items = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            items.add(new BoundedLoadHashRing.Item(id, id % 3 + 1));
+        }
+        List<BoundedLoadHashRing.Node> nodes = List.of(new BoundedLoadHashRing.Node("a", 1), new BoundedLoadHashRing.Node("b", 1),
+                new BoundedLoadHashRing.Node("c", 3));
+        BoundedLoadHashRing.Assignment first = new BoundedLoadHashRing(nodes, VNODES, LOAD_FACTOR).assign(items);
+        List<BoundedLoadHashRing.Item> reversed = new ArrayList<>(items);
+        java.util.Collections.reverse(reversed);
+        BoundedLoadHashRing.Assignment second = new BoundedLoadHashRing(List.of(nodes.get(2), nodes.get(0), nodes.get(1)), VNODES, LOAD_FACTOR)
+                .assign(reversed);
+        assertEquals(first.owners(), second.owners());
+    }
+
+    private static int moved(Map<Long, String> before, Map<Long, String> after) {
+        int moved = 0;
+        for (Map.Entry<Long, String> entry : before.entrySet()) {
+            if (!entry.getValue().equals(after.get(entry.getKey()))) moved++;
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bigBrother.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsRightAwayWhenTheQueueIsFull() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("test", 2, 0, Duration.ofSeconds(10));
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        assertEquals(2, bulkhead.getActive());
+
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void waiterGetsTheNextFreeSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(10));
+        assertTrue(bulkhead.tryAcquire());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Boolean> waiter = executor.submit(() -> {
+                started.countDown();
+                return bulkhead.tryAcquire();
+            });
+            started.await();
+            while (bulkhead.getWaiting() == 0) {
+                Thread.sleep(1);
+            }
+            // The only queue place is taken
+            assertFalse(bulkhead.tryAcquire());
+
+            bulkhead.release();
+            assertTrue(waiter.get());
+            assertEquals(0, bulkhead.getWaiting());
+            assertEquals(1, bulkhead.getActive());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waiterGivesUpAfterMaxWait() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        assertEquals(0, bulkhead.getWaiting());
+    }
+}